@@ -8,14 +8,34 @@ import android.widget.TextView;
 
 import androidx.annotation.NonNull;
 import androidx.cardview.widget.CardView;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 
-import java.util.ArrayList;
-import java.util.List;
+import com.alexyuzefovich.stacklayoutmanager.adapter.AsyncStackAdapter;
 
-public class CardsAdapter extends RecyclerView.Adapter<CardsAdapter.CardViewHolder> {
+import java.util.concurrent.Executor;
 
-    private List<String> items = new ArrayList<>();
+/**
+ * Adapter of cards with colors from hex strings. Colors are parsed once on background executor
+ * when items are set, binding only applies parsed values.
+ */
+public class CardsAdapter extends AsyncStackAdapter<String, CardsAdapter.Card, CardsAdapter.CardViewHolder> {
+
+    private static final DiffUtil.ItemCallback<Card> DIFF_CALLBACK = new DiffUtil.ItemCallback<Card>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull Card oldItem, @NonNull Card newItem) {
+            return oldItem.colorHex.equals(newItem.colorHex);
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull Card oldItem, @NonNull Card newItem) {
+            return oldItem.color == newItem.color;
+        }
+    };
+
+    public CardsAdapter(@NonNull Executor backgroundExecutor) {
+        super(DIFF_CALLBACK, backgroundExecutor);
+    }
 
     @NonNull
     @Override
@@ -25,24 +45,31 @@ public class CardsAdapter extends RecyclerView.Adapter<CardsAdapter.CardViewHold
         return new CardViewHolder(view);
     }
 
+    @NonNull
     @Override
-    public void onBindViewHolder(@NonNull CardViewHolder holder, int position) {
-        holder.cardText.setText(String.valueOf(position + 1));
-        holder.card.setCardBackgroundColor(Color.parseColor(items.get(position)));
+    protected Card decode(@NonNull String colorHex) {
+        return new Card(colorHex, Color.parseColor(colorHex));
     }
 
     @Override
-    public int getItemCount() {
-        return items.size();
+    protected void onBindItem(@NonNull CardViewHolder holder, @NonNull Card item, int position) {
+        // label is taken from the item, so cards shifted by updates don't need rebinding
+        holder.cardText.setText(item.colorHex);
+        holder.card.setCardBackgroundColor(item.color);
     }
 
-    public void setItems(List<String> newItems) {
-        items.clear();
-        items.addAll(newItems);
-        notifyDataSetChanged();
+    static class Card {
+
+        final String colorHex;
+        final int color;
+
+        Card(String colorHex, int color) {
+            this.colorHex = colorHex;
+            this.color = color;
+        }
     }
 
-    class CardViewHolder extends RecyclerView.ViewHolder {
+    static class CardViewHolder extends RecyclerView.ViewHolder {
 
         private final CardView card;
         private final TextView cardText;
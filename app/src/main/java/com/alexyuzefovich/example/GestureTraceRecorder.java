@@ -0,0 +1,137 @@
+package com.alexyuzefovich.example;
+
+import android.view.MotionEvent;
+import android.view.VelocityTracker;
+import android.view.ViewConfiguration;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Locale;
+
+/**
+ * Records touch gestures over RecyclerView as a gesture trace, which can be replayed by
+ * GestureTraceReplayer in tests of the library. Trace is a text with one event per line:
+ * "time_ms type value", where time is counted from the first recorded event and type is
+ * D - drag by value px (positive value scrolls forward), F - fling with value px/s velocity,
+ * U - release without fling. Drags are recorded as RecyclerView scrolls by them: touch slop is subtracted
+ * from the first move of a gesture, unless touch down caught settling scroll (RecyclerView continues
+ * dragging at once). Items of the sample don't handle touches, so all moves are scrolled by RecyclerView.
+ */
+class GestureTraceRecorder implements RecyclerView.OnItemTouchListener {
+
+    private final StringBuilder trace = new StringBuilder("# time_ms type value\n");
+
+    private final int minFlingVelocity;
+
+    private final int maxFlingVelocity;
+
+    private final int touchSlop;
+
+    private VelocityTracker velocityTracker;
+
+    private long startTime = -1;
+
+    // touch coordinates are rounded as RecyclerView does
+    private int downY;
+
+    private int lastY;
+
+    private boolean dragging;
+
+    // the same event can be dispatched to the listener twice (intercepting and touch)
+    private long lastEventTime = -1;
+
+    private int lastAction = -1;
+
+    GestureTraceRecorder(@NonNull RecyclerView recyclerView) {
+        final ViewConfiguration configuration = ViewConfiguration.get(recyclerView.getContext());
+        minFlingVelocity = configuration.getScaledMinimumFlingVelocity();
+        maxFlingVelocity = configuration.getScaledMaximumFlingVelocity();
+        touchSlop = configuration.getScaledTouchSlop();
+    }
+
+    @Override
+    public boolean onInterceptTouchEvent(@NonNull RecyclerView rv, @NonNull MotionEvent e) {
+        record(rv, e);
+        return false;
+    }
+
+    @Override
+    public void onTouchEvent(@NonNull RecyclerView rv, @NonNull MotionEvent e) {
+        record(rv, e);
+    }
+
+    @Override
+    public void onRequestDisallowInterceptTouchEvent(boolean disallowIntercept) {
+    }
+
+    private void record(RecyclerView rv, MotionEvent e) {
+        final int action = e.getActionMasked();
+        if (e.getEventTime() == lastEventTime && action == lastAction) {
+            return;
+        }
+        lastEventTime = e.getEventTime();
+        lastAction = action;
+        if (startTime < 0) {
+            startTime = e.getEventTime();
+        }
+        if (velocityTracker == null) {
+            velocityTracker = VelocityTracker.obtain();
+        }
+        velocityTracker.addMovement(e);
+        final long time = e.getEventTime() - startTime;
+        final int y = (int) (e.getY() + 0.5f);
+        switch (action) {
+            case MotionEvent.ACTION_DOWN:
+                downY = y;
+                lastY = y;
+                // listener gets touch down before RecyclerView stops settling scroll
+                dragging = rv.getScrollState() == RecyclerView.SCROLL_STATE_SETTLING;
+                break;
+            case MotionEvent.ACTION_MOVE:
+                if (!dragging) {
+                    final int totalDy = downY - y;
+                    if (Math.abs(totalDy) <= touchSlop) {
+                        break;
+                    }
+                    dragging = true;
+                    lastY = totalDy > 0 ? downY - touchSlop : downY + touchSlop;
+                }
+                final int dy = lastY - y;
+                if (dy != 0) {
+                    append(time, 'D', dy);
+                    lastY = y;
+                }
+                break;
+            case MotionEvent.ACTION_UP:
+                velocityTracker.computeCurrentVelocity(1000, maxFlingVelocity);
+                final int velocityY = -Math.round(velocityTracker.getYVelocity());
+                if (Math.abs(velocityY) > minFlingVelocity) {
+                    append(time, 'F', velocityY);
+                } else {
+                    append(time, 'U', 0);
+                }
+                velocityTracker.clear();
+                break;
+            case MotionEvent.ACTION_CANCEL:
+                append(time, 'U', 0);
+                velocityTracker.clear();
+                break;
+        }
+    }
+
+    private void append(long time, char type, int value) {
+        trace.append(String.format(Locale.US, "%d %c %d%n", time, type, value));
+    }
+
+    void writeTo(@NonNull File file) throws IOException {
+        try (Writer writer = new FileWriter(file)) {
+            writer.write(trace.toString());
+        }
+    }
+}
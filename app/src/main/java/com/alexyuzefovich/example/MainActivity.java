@@ -4,29 +4,125 @@ import androidx.appcompat.app.AppCompatActivity;
 import androidx.recyclerview.widget.RecyclerView;
 
 import android.os.Bundle;
+import android.os.SystemClock;
+import android.util.Log;
+import android.view.ViewTreeObserver;
 
 import com.alexyuzefovich.stacklayoutmanager.StackLayoutManager;
 import com.alexyuzefovich.stacklayoutmanager.helper.SmartPagerSnapHelper;
+import com.alexyuzefovich.stacklayoutmanager.helper.ViewHolderPrewarmer;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
+/**
+ * Cold start can be compared with and without view holders pre-warming:
+ * adb shell am start -S -n com.alexyuzefovich.stacklayoutmanager/com.alexyuzefovich.example.MainActivity --ez prewarm false
+ * Time from onCreate() to the first frame with cards is printed to logcat with tag MainActivity.
+ *
+ * Gestures are recorded into gesture.trace in external files dir with --ez recordTrace true,
+ * trace is written when activity is paused.
+ */
 public class MainActivity extends AppCompatActivity {
 
+    private static final String TAG = "MainActivity";
+
+    private static final String EXTRA_PREWARM = "prewarm";
+
+    private static final String EXTRA_RECORD_TRACE = "recordTrace";
+
+    private static final String TRACE_FILE_NAME = "gesture.trace";
+
+    // creates view holders and decodes items off the main thread
+    private final ExecutorService backgroundExecutor = Executors.newSingleThreadExecutor();
+
+    private ViewHolderPrewarmer viewHolderPrewarmer;
+
+    private GestureTraceRecorder gestureTraceRecorder;
+
     @Override
     protected void onCreate(Bundle savedInstanceState) {
+        final long startTime = SystemClock.uptimeMillis();
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_main);
 
-        RecyclerView recyclerView = findViewById(R.id.recyclerView);
-        CardsAdapter cardsAdapter = new CardsAdapter();
-        cardsAdapter.setItems(generateItems());
+        final RecyclerView recyclerView = findViewById(R.id.recyclerView);
+        CardsAdapter cardsAdapter = new CardsAdapter(backgroundExecutor);
+        cardsAdapter.submitList(generateItems());
         recyclerView.setAdapter(cardsAdapter);
-        StackLayoutManager stackLayoutManager = new StackLayoutManager();
+        final StackLayoutManager stackLayoutManager = new StackLayoutManager();
         stackLayoutManager.setScaleFactor(0.5f);
-        recyclerView.setLayoutManager(stackLayoutManager);
         SmartPagerSnapHelper smartPagerSnapHelper = new SmartPagerSnapHelper();
         smartPagerSnapHelper.attachToRecyclerView(recyclerView);
+        if (getIntent().getBooleanExtra(EXTRA_RECORD_TRACE, false)) {
+            gestureTraceRecorder = new GestureTraceRecorder(recyclerView);
+            recyclerView.addOnItemTouchListener(gestureTraceRecorder);
+        }
+
+        // RecyclerView passes restored state only to layout manager which is already set,
+        // so layout manager is set synchronously after rotation
+        final boolean prewarm = savedInstanceState == null
+                && getIntent().getBooleanExtra(EXTRA_PREWARM, true);
+        logFirstCardsFrame(recyclerView, startTime, prewarm);
+        if (prewarm) {
+            // layout manager is set when view holders are in the pool, so the first layout only binds them
+            viewHolderPrewarmer = new ViewHolderPrewarmer(recyclerView, cardsAdapter);
+            viewHolderPrewarmer.setCallback(new ViewHolderPrewarmer.Callback() {
+                @Override
+                public void onPrewarmFinished(int createdCount) {
+                    recyclerView.setLayoutManager(stackLayoutManager);
+                }
+            });
+            viewHolderPrewarmer.prewarmInBackground(
+                    0,
+                    ViewHolderPrewarmer.getStackWindowSize(stackLayoutManager),
+                    backgroundExecutor
+            );
+        } else {
+            recyclerView.setLayoutManager(stackLayoutManager);
+        }
+        Log.d(TAG, "onCreate: " + (SystemClock.uptimeMillis() - startTime) + " ms, prewarm=" + prewarm);
+    }
+
+    @Override
+    protected void onPause() {
+        super.onPause();
+        if (gestureTraceRecorder != null) {
+            final File traceFile = new File(getExternalFilesDir(null), TRACE_FILE_NAME);
+            try {
+                gestureTraceRecorder.writeTo(traceFile);
+                Log.d(TAG, "Gesture trace is written to " + traceFile);
+            } catch (IOException e) {
+                Log.e(TAG, "Can't write gesture trace", e);
+            }
+        }
+    }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        if (viewHolderPrewarmer != null) {
+            viewHolderPrewarmer.cancel();
+        }
+        backgroundExecutor.shutdown();
+    }
+
+    private void logFirstCardsFrame(final RecyclerView recyclerView, final long startTime, final boolean prewarm) {
+        recyclerView.getViewTreeObserver().addOnPreDrawListener(new ViewTreeObserver.OnPreDrawListener() {
+            @Override
+            public boolean onPreDraw() {
+                if (recyclerView.getChildCount() > 0) {
+                    recyclerView.getViewTreeObserver().removeOnPreDrawListener(this);
+                    Log.d(TAG, "First frame with cards: " + (SystemClock.uptimeMillis() - startTime)
+                            + " ms, prewarm=" + prewarm);
+                }
+                return true;
+            }
+        });
     }
 
     private List<String> generateItems() {
@@ -0,0 +1,100 @@
+package com.alexyuzefovich.stacklayoutmanager.benchmark;
+
+import com.alexyuzefovich.stacklayoutmanager.geometry.StackGeometry;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-frame cost of StackGeometry: position update on scroll plus places and cover progress
+ * of laid out items, as StackLayoutManager calculates them on each scroll event.
+ * **/
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StackGeometryBenchmark {
+
+    private static final int ITEM_HEIGHT = 1920;
+
+    // scroll distance of a single frame of slow drag
+    private static final int FRAME_DY = 37;
+
+    // fling decelerating from FLING_START_DY to 0 during FLING_FRAMES frames
+    private static final int FLING_FRAMES = 120;
+    private static final int FLING_START_DY = 400;
+
+    @Param({"10", "1000", "1000000"})
+    public int itemCount;
+
+    private StackGeometry geometry;
+
+    private int[] flingDeltas;
+
+    private int direction = 1;
+
+    private int jumpPosition;
+
+    @Setup
+    public void setUp() {
+        geometry = new StackGeometry();
+        geometry.setItemCount(itemCount);
+        geometry.setItemHeight(ITEM_HEIGHT);
+        geometry.setPosition(itemCount / 2, 0);
+
+        flingDeltas = new int[FLING_FRAMES];
+        for (int i = 0; i < FLING_FRAMES; i++) {
+            flingDeltas[i] = Math.max(1, FLING_START_DY * (FLING_FRAMES - i) / FLING_FRAMES);
+        }
+    }
+
+    @Benchmark
+    public void scrollFrame(Blackhole blackhole) {
+        scroll(FRAME_DY);
+        consumeLayout(blackhole);
+    }
+
+    @Benchmark
+    public void fling(Blackhole blackhole) {
+        for (int dy : flingDeltas) {
+            scroll(dy);
+            consumeLayout(blackhole);
+        }
+    }
+
+    @Benchmark
+    public void jump(Blackhole blackhole) {
+        jumpPosition = (jumpPosition + itemCount / 3 + 1) % itemCount;
+        geometry.setPosition(jumpPosition, 0);
+        consumeLayout(blackhole);
+    }
+
+    private void scroll(int dy) {
+        // scroll back and forth within item range
+        if (geometry.scrollBy(direction * dy) == 0) {
+            direction = -direction;
+        }
+    }
+
+    private void consumeLayout(Blackhole blackhole) {
+        final int lastPosition = geometry.getLastPosition();
+        for (int i = geometry.getFirstPosition(); i <= lastPosition; i++) {
+            blackhole.consume(geometry.getItemTop(i));
+            blackhole.consume(geometry.getCoverProgress(i));
+        }
+    }
+}
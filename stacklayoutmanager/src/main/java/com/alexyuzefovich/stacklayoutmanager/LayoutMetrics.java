@@ -0,0 +1,93 @@
+package com.alexyuzefovich.stacklayoutmanager;
+
+/**
+ * Metrics of a single onLayoutChildren() or scrollVerticallyBy() call of StackLayoutManager.
+ *
+ * Note:
+ * The same instance is reused for every call, so values should be copied
+ * if they are needed after LayoutMetricsListener.onLayoutMetrics() returns.
+ * **/
+public final class LayoutMetrics {
+
+    public static final int TYPE_LAYOUT = 0;
+    public static final int TYPE_SCROLL = 1;
+
+    private int type;
+
+    private long elapsedNanos;
+
+    private int fetchedViewCount;
+
+    private int recycledViewCount;
+
+    private int measuredViewCount;
+
+    private int firstPosition;
+
+    private int scrollOffset;
+
+    LayoutMetrics() {
+    }
+
+    /**Returns TYPE_LAYOUT for onLayoutChildren() or TYPE_SCROLL for scrollVerticallyBy()**/
+    public int getType() {
+        return type;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**Returns count of views got from recycler (from scrap, cache, pool or newly created)**/
+    public int getFetchedViewCount() {
+        return fetchedViewCount;
+    }
+
+    /**Returns count of views returned to recycler: views which left the stack, invalid views
+     * (ex. after notifyDataSetChanged()) and scrap which was not reused (ex. removed items)**/
+    public int getRecycledViewCount() {
+        return recycledViewCount;
+    }
+
+    public int getMeasuredViewCount() {
+        return measuredViewCount;
+    }
+
+    public int getFirstPosition() {
+        return firstPosition;
+    }
+
+    public int getScrollOffset() {
+        return scrollOffset;
+    }
+
+    void reset(int type) {
+        this.type = type;
+        elapsedNanos = 0;
+        fetchedViewCount = 0;
+        recycledViewCount = 0;
+        measuredViewCount = 0;
+    }
+
+    void onViewFetched() {
+        fetchedViewCount++;
+    }
+
+    void onViewRecycled() {
+        recycledViewCount++;
+    }
+
+    void onViewsRecycled(int count) {
+        recycledViewCount += count;
+    }
+
+    void onViewMeasured() {
+        measuredViewCount++;
+    }
+
+    void finish(long elapsedNanos, int firstPosition, int scrollOffset) {
+        this.elapsedNanos = elapsedNanos;
+        this.firstPosition = firstPosition;
+        this.scrollOffset = scrollOffset;
+    }
+}
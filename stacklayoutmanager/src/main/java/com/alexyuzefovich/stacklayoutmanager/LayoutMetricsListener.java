@@ -0,0 +1,12 @@
+package com.alexyuzefovich.stacklayoutmanager;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Listener receives metrics of every onLayoutChildren() and scrollVerticallyBy() call
+ * of StackLayoutManager (ex. for performance telemetry).
+ * **/
+public interface LayoutMetricsListener {
+
+    void onLayoutMetrics(@NonNull LayoutMetrics metrics);
+}
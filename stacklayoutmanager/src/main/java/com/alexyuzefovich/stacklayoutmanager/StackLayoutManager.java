@@ -1,76 +1,462 @@
 package com.alexyuzefovich.stacklayoutmanager;
 
+import android.content.Context;
 import android.graphics.PointF;
 import android.graphics.Rect;
+import android.os.Parcel;
+import android.os.Parcelable;
+import android.util.AttributeSet;
 import android.view.View;
+import android.view.ViewGroup;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.recyclerview.widget.LinearSmoothScroller;
 import androidx.recyclerview.widget.RecyclerView;
 
+import com.alexyuzefovich.stacklayoutmanager.geometry.StackGeometry;
+import com.alexyuzefovich.stacklayoutmanager.transformer.ItemTransformer;
+import com.alexyuzefovich.stacklayoutmanager.transformer.ScaleItemTransformer;
+
+import java.util.List;
+
 public class StackLayoutManager extends RecyclerView.LayoutManager implements RecyclerView.SmoothScroller.ScrollVectorProvider {
 
-    private static final float DEFAULT_SCALE_FACTOR = 1;
+    // count of items animated by smooth scroll after jump to distant target
+    private static final int SMOOTH_SCROLL_ANIMATED_ITEMS = 2;
+
+    // stores position of the first child view and scroll offset, calculates places of items
+    private final StackGeometry geometry = new StackGeometry();
+
+    // position requested by scrollToPosition() and applied in the next layout pass
+    private int pendingScrollPosition = RecyclerView.NO_POSITION;
+
+    // stack position restored from saved state and applied in the next layout pass
+    @Nullable
+    private SavedState pendingSavedState;
+
+    // true when children can differ from adapter data or stack position,
+    // so the next layout pass must fill the stack again
+    private boolean layoutInvalidated = true;
+
+    // RecyclerView size used by the last fill()
+    private int laidOutWidth = -1;
+
+    private int laidOutHeight = -1;
+
+    private int laidOutPaddingBottom = -1;
+
+    private final ScaleItemTransformer scaleItemTransformer = new ScaleItemTransformer();
+
+    @NonNull
+    private ItemTransformer itemTransformer = scaleItemTransformer;
+
+    private boolean clipCoveredItems = false;
+
+    // in-flight scroll is applied as translationY, layout positions are committed later
+    private boolean translationScrollEnabled = false;
+
+    // top item is drawn through hardware layer while scroll is in progress
+    private boolean hardwareLayersEnabled = false;
+
+    // only the top item and the item sliding over it cast shadows
+    private boolean reduceCoveredElevation = false;
+
+    // children are returned to (probably shared) pool when RecyclerView is detached from window
+    private boolean recycleChildrenOnDetach = false;
+
+    private int scrollState = RecyclerView.SCROLL_STATE_IDLE;
+
+    // items have the same size, which depends only on RecyclerView size and decorations
+    private boolean hasFixedSizeItems = false;
+
+    // generations are unique across layout managers (ex. views from shared pool measured
+    // by another stack are not treated as measured), all layout managers work on the main thread
+    private static int lastMeasureGeneration = 0;
+
+    // incremented on every layout pass, items measured in the current generation
+    // are not measured on scroll in fixed size items mode
+    private int measureGeneration = ++lastMeasureGeneration;
 
-    // value stored item position of first child view
-    private int firstPosition = 0;
+    // scratch objects reused on scroll and measure to avoid allocations per frame
+    private final Rect decorRect = new Rect();
 
-    private float currentScrollOffset = 0;
+    private final PointF scrollVector = new PointF();
 
-    private float scaleFactor = DEFAULT_SCALE_FACTOR;
+    private final Rect clipRect = new Rect();
 
+    @Nullable
+    private StackSmoothScroller smoothScroller;
+
+    // 0 - smooth scroll always passes all items between current and target positions
+    private int smoothScrollJumpThreshold = 0;
+
+    @Nullable
+    private LayoutMetricsListener layoutMetricsListener;
+
+    private final LayoutMetrics layoutMetrics = new LayoutMetrics();
+
+    /**Sets scale factor of default ScaleItemTransformer. Has no effect on custom transformer**/
     public void setScaleFactor(float scaleFactor) {
-        this.scaleFactor =
-                scaleFactor >= 0f && scaleFactor <= 1f
-                        ? scaleFactor
-                        : DEFAULT_SCALE_FACTOR;
+        scaleItemTransformer.setScaleFactor(scaleFactor);
+        if (itemTransformer == scaleItemTransformer) {
+            reapplyItemTransforms();
+        }
+    }
+
+    /**Sets transformer applied to items on scroll. If null, default ScaleItemTransformer is used.
+     * Properties changed by the previous transformer are reset by calling it with progress 0
+     * before the new one is applied (items in the pool are reset when they are attached again)**/
+    public void setItemTransformer(@Nullable ItemTransformer itemTransformer) {
+        this.itemTransformer = itemTransformer != null ? itemTransformer : scaleItemTransformer;
+        reapplyItemTransforms();
+    }
+
+    @NonNull
+    public ItemTransformer getItemTransformer() {
+        return itemTransformer;
+    }
+
+    /**Enables clipping of items to their visible part: item covered by the next one is drawn only
+     * above top of the next item, items out of RecyclerView bounds are not drawn at all.
+     * It reduces overdraw, but items must be opaque up to their top edge, otherwise
+     * covered item will not be visible through the transparent part of the next one.
+     * Clip bounds of items are owned by StackLayoutManager in this mode: bounds set by the app
+     * are overwritten and are cleared when clipping is disabled**/
+    public void setClipCoveredItems(boolean clipCoveredItems) {
+        if (this.clipCoveredItems != clipCoveredItems) {
+            this.clipCoveredItems = clipCoveredItems;
+            updateItemClips();
+        }
+    }
+
+    public boolean isClipCoveredItems() {
+        return clipCoveredItems;
+    }
+
+    /**Enables scrolling by translationY: while scroll is in progress items are moved
+     * by RenderNode property without changing their layout bounds. Layout positions are committed
+     * when scroll becomes idle or when the second item reaches the top of the stack.
+     * Scrolling in idle state (ex. RecyclerView.scrollBy()) changes layout positions at once.
+     * In this mode translationY of items is owned by StackLayoutManager,
+     * so item transformer must not change it**/
+    public void setTranslationScrollEnabled(boolean translationScrollEnabled) {
+        if (this.translationScrollEnabled != translationScrollEnabled) {
+            this.translationScrollEnabled = translationScrollEnabled;
+            if (!translationScrollEnabled) {
+                commitScrollTranslations();
+            }
+        }
+    }
+
+    public boolean isTranslationScrollEnabled() {
+        return translationScrollEnabled;
+    }
+
+    /**Enables hardware layer for the top item while RecyclerView is dragged or settling, so its
+     * transformation on every frame is applied to cached texture instead of redrawing item content.
+     * Layer is removed when scroll becomes idle. Items with layer type set by the app are not changed**/
+    public void setHardwareLayersEnabled(boolean hardwareLayersEnabled) {
+        if (this.hardwareLayersEnabled != hardwareLayersEnabled) {
+            this.hardwareLayersEnabled = hardwareLayersEnabled;
+            updateHardwareLayers();
+        }
+    }
+
+    public boolean isHardwareLayersEnabled() {
+        return hardwareLayersEnabled;
+    }
+
+    /**Enables zero elevation for items except the top one and the item sliding over it: covered items
+     * and items out of RecyclerView bounds don't draw shadows. Original elevation is restored when
+     * item becomes one of the top items or is recycled. Elevation must not be changed by the app
+     * while it is reduced, otherwise it is overwritten on restoring**/
+    public void setReduceCoveredElevation(boolean reduceCoveredElevation) {
+        if (this.reduceCoveredElevation != reduceCoveredElevation) {
+            this.reduceCoveredElevation = reduceCoveredElevation;
+            updateItemElevations();
+        }
+    }
+
+    public boolean isReduceCoveredElevation() {
+        return reduceCoveredElevation;
+    }
+
+    /**Enables recycling of all children when RecyclerView is detached from window. It is useful
+     * for nested stacks sharing one RecycledViewPool: views of detached stack become available
+     * for other stacks. Disabled by default**/
+    public void setRecycleChildrenOnDetach(boolean recycleChildrenOnDetach) {
+        this.recycleChildrenOnDetach = recycleChildrenOnDetach;
+    }
+
+    public boolean isRecycleChildrenOnDetach() {
+        return recycleChildrenOnDetach;
+    }
+
+    /**Returns recommended capacity of RecycledViewPool per view type for the current stack depth:
+     * all laid out items, which are returned to the pool together when the stack is detached
+     * or its adapter is changed, and one item recycled on scroll. For the pool shared by several
+     * stacks, sum values of stacks which can be rebound at the same time (ex. visible ones)**/
+    public int getRecommendedRecycledViewPoolSize() {
+        return geometry.getItemsBehind() + 1 + geometry.getItemsAhead() + 1;
+    }
+
+    /**Enables fixed size items mode: all items have the same size and decoration insets, which
+     * depend only on RecyclerView size. Items attached on scroll are neither measured nor get
+     * their decoration insets calculated, if they were measured after the last layout pass.
+     * Every layout pass (ex. on resizing, adapter updates or invalidateItemDecorations())
+     * measures items as usual. Items which requested layout are always measured**/
+    public void setHasFixedSizeItems(boolean hasFixedSizeItems) {
+        this.hasFixedSizeItems = hasFixedSizeItems;
+    }
+
+    public boolean hasFixedSizeItems() {
+        return hasFixedSizeItems;
+    }
+
+    /**Sets count of items after which smoothScrollToPosition() jumps close to the target without
+     * animation (recycling current views) and animates only the last items. It avoids binding and
+     * measuring of all intermediate items for distant targets. 0 disables jumping (default)**/
+    public void setSmoothScrollJumpThreshold(int itemCount) {
+        smoothScrollJumpThreshold = Math.max(0, itemCount);
+    }
+
+    /**Sets count of items kept laid out after the top item of the stack (default 2, at least 1).
+     * Items after the second one are laid out below RecyclerView bounds, so they are bound
+     * before they become visible. More items take more memory and layout time on every jump**/
+    public void setItemsAhead(int itemsAhead) {
+        if (geometry.getItemsAhead() != itemsAhead) {
+            geometry.setItemsAhead(itemsAhead);
+            requestLayout();
+        }
+    }
+
+    public int getItemsAhead() {
+        return geometry.getItemsAhead();
+    }
+
+    /**Sets count of covered items kept laid out under the top item of the stack (default 0).
+     * They are passed to item transformer with progress 1, so they are returned without
+     * rebinding on scroll back and can be used for deck effects**/
+    public void setItemsBehind(int itemsBehind) {
+        if (geometry.getItemsBehind() != itemsBehind) {
+            geometry.setItemsBehind(itemsBehind);
+            requestLayout();
+        }
+    }
+
+    public int getItemsBehind() {
+        return geometry.getItemsBehind();
+    }
+
+    /**Sets listener of layout and scroll metrics. Time is measured only while listener is set**/
+    public void setLayoutMetricsListener(@Nullable LayoutMetricsListener layoutMetricsListener) {
+        this.layoutMetricsListener = layoutMetricsListener;
     }
 
     @Override
     public RecyclerView.LayoutParams generateDefaultLayoutParams() {
-        return new RecyclerView.LayoutParams(
+        return new LayoutParams(
                 RecyclerView.LayoutParams.MATCH_PARENT,
                 RecyclerView.LayoutParams.MATCH_PARENT
         );
     }
 
+    @Override
+    public RecyclerView.LayoutParams generateLayoutParams(Context c, AttributeSet attrs) {
+        return new LayoutParams(c, attrs);
+    }
+
+    @Override
+    public RecyclerView.LayoutParams generateLayoutParams(ViewGroup.LayoutParams lp) {
+        if (lp instanceof RecyclerView.LayoutParams) {
+            return new LayoutParams((RecyclerView.LayoutParams) lp);
+        } else if (lp instanceof ViewGroup.MarginLayoutParams) {
+            return new LayoutParams((ViewGroup.MarginLayoutParams) lp);
+        } else {
+            return new LayoutParams(lp);
+        }
+    }
+
+    @Override
+    public boolean checkLayoutParams(RecyclerView.LayoutParams lp) {
+        return lp instanceof LayoutParams;
+    }
+
     @Override
     public void onLayoutChildren(RecyclerView.Recycler recycler, RecyclerView.State state) {
-        fill(recycler);
+        final long startTime = startMetrics(LayoutMetrics.TYPE_LAYOUT);
+        // decorations or sizes could be changed, so all items are measured again
+        measureGeneration = ++lastMeasureGeneration;
+        if (canRelayoutDirtyChildrenOnly(state)) {
+            relayoutDirtyChildren();
+        } else {
+            fill(recycler);
+        }
+        finishMetrics(startTime);
+    }
+
+    /**Returns true if neither RecyclerView size nor adapter data nor stack position was changed
+     * since the last fill(), so layout pass was requested by children themselves
+     * (ex. image was loaded into item)**/
+    private boolean canRelayoutDirtyChildrenOnly(RecyclerView.State state) {
+        if (layoutInvalidated
+                || state.didStructureChange()
+                || state.getItemCount() != geometry.getItemCount()
+                || getWidth() != laidOutWidth
+                || getHeight() != laidOutHeight
+                || getPaddingBottom() != laidOutPaddingBottom) {
+            return false;
+        }
+        // attached children must match the laid out range (ex. stack depth was changed)
+        final View firstChild = getChildAt(0);
+        return firstChild != null
+                && getPosition(firstChild) == geometry.getStartPosition()
+                && getChildCount() == geometry.getLastPosition() - geometry.getStartPosition() + 1;
+    }
+
+    /**Measures and lays out only children which requested layout or which decoration insets
+     * were changed, other children keep their bounds**/
+    private void relayoutDirtyChildren() {
+        final int startPosition = geometry.getStartPosition();
+        for (int i = 0; i < getChildCount(); i++) {
+            final View view = getChildAt(i);
+            if (view == null) {
+                continue;
+            }
+            final boolean layoutRequested = view.isLayoutRequested();
+            final boolean measured = measureMatchParentChild(view);
+            if (layoutRequested || measured) {
+                // view is laid out at its committed place, uncommitted scroll translation is kept
+                final LayoutParams lp = (LayoutParams) view.getLayoutParams();
+                final int viewTop = geometry.getItemTop(startPosition + i) - lp.scrollTranslation;
+                layoutDecorated(view, 0, viewTop, getWidth(), viewTop + getDecoratedMeasuredHeight(view));
+            }
+        }
+        updateItemClips();
     }
 
     /**This method is used for fill initial pack of view or when one (or more) child view
      * calls its measure() and layout() methods on resizing event**/
     private void fill(RecyclerView.Recycler recycler) {
-        final int itemCount = getItemCount();
-        if (itemCount > 0) {
-            final int viewHeight = getHeight() - getPaddingBottom();
-            // if child count == 0 -> initial set or data update after removing all views (ex. scrollToPosition)
-            if (getChildCount() == 0) {
-                currentScrollOffset = 0;
-            } else { // children have updates (ex. resizing)
-                // detach all views before adding and re-measure
-                detachAndScrapAttachedViews(recycler);
+        updateGeometry();
+        if (geometry.getItemCount() == 0) {
+            // all items were removed
+            recycleAllViews(recycler);
+            geometry.setPosition(0, 0);
+            return;
+        }
+        if (pendingScrollPosition != RecyclerView.NO_POSITION) {
+            geometry.setPosition(pendingScrollPosition, 0);
+            pendingScrollPosition = RecyclerView.NO_POSITION;
+        } else if (pendingSavedState != null) {
+            // offset is scaled in case of item height was changed (ex. on rotation)
+            final SavedState savedState = pendingSavedState;
+            final int itemHeight = geometry.getItemHeight();
+            final int scrollOffset = savedState.itemHeight > 0
+                    ? (int) ((long) savedState.scrollOffset * itemHeight / savedState.itemHeight)
+                    : 0;
+            geometry.setPosition(savedState.firstPosition, scrollOffset);
+        }
+        pendingSavedState = null;
+        // ex. tail of the list was removed or notifyDataSetChanged() was called
+        geometry.clampPosition();
+        final int startPosition = geometry.getStartPosition();
+        final int endPosition = geometry.getLastPosition();
+        if (getChildCount() > 0) { // children have updates (ex. resizing, adapter changes, scrollToPosition)
+            // views out of the new range are recycled first, so they can be rebound
+            // for new positions instead of inflating new ones (ex. after scrollToPosition)
+            recycleViewsOutOfRange(recycler, startPosition, endPosition);
+            clearReplacedItemsState();
+            // detach remaining views before adding and re-measure,
+            // only views with changed data will be rebound after getting from scrap
+            final int childCount = getChildCount();
+            detachAndScrapAttachedViews(recycler);
+            // invalid views are recycled instead of scrapping, changed ones are replaced by new views
+            layoutMetrics.onViewsRecycled(childCount - recycler.getScrapList().size());
+        }
+        // add child views at places according to the stack geometry
+        for (int i = startPosition; i <= endPosition; i++) {
+            addAndLayoutView(recycler, i, false);
+        }
+        // scrap which was not reused (ex. removed items) is recycled by RecyclerView after layout
+        final List<RecyclerView.ViewHolder> scrapList = recycler.getScrapList();
+        for (int i = 0; i < scrapList.size(); i++) {
+            clearItemState(scrapList.get(i).itemView);
+        }
+        layoutMetrics.onViewsRecycled(scrapList.size());
+        updateItemClips();
+        updateHardwareLayers();
+        updateItemElevations();
+        layoutInvalidated = false;
+        laidOutWidth = getWidth();
+        laidOutHeight = getHeight();
+        laidOutPaddingBottom = getPaddingBottom();
+    }
+
+    /**Recycles all children and counts them in layout metrics**/
+    private void recycleAllViews(RecyclerView.Recycler recycler) {
+        layoutMetrics.onViewsRecycled(getChildCount());
+        removeAndRecycleAllViews(recycler);
+    }
+
+    /**Views are returned to the pool without state set by StackLayoutManager. RecyclerView calls
+     * this method directly when adapter or layout manager is changed**/
+    @Override
+    public void removeAndRecycleAllViews(@NonNull RecyclerView.Recycler recycler) {
+        for (int i = 0; i < getChildCount(); i++) {
+            final View view = getChildAt(i);
+            if (view != null) {
+                clearItemState(view);
             }
+        }
+        super.removeAndRecycleAllViews(recycler);
+    }
 
-            int viewTop = 0;
-            final int startPosition = itemCount > 1 ? firstPosition : 0;
-            final int positionOffset = startPosition + 2 < itemCount
-                    ? 2
-                    : itemCount - 1 - startPosition;
-            final int endPosition = itemCount > 1
-                    ? (startPosition + positionOffset)
-                    : 0;
-            // add child views taking into account the currentScrollOffset
-            for (int i = startPosition; i <= endPosition; i++) {
-                final View view = addViewFromRecycler(recycler, i, false);
-                measureMatchParentChild(view);
-                final int viewRight = getWidth();
-                final int viewBottom = viewTop + viewHeight;
-                layoutDecorated(view, 0, viewTop, viewRight, viewBottom);
-                int offset = i != startPosition + 1 ? (int) currentScrollOffset : 0;
-                viewTop = getDecoratedBottom(view) - offset;
+    /**Resets translation, layer type, elevation and clip bounds changed by StackLayoutManager
+     * before the view is recycled, so the view can be used by another layout manager
+     * sharing the pool**/
+    private void clearItemState(View view) {
+        clearScrollTranslation(view);
+        setHardwareLayer(view, false);
+        setElevationReduced(view, false);
+        final LayoutParams lp = (LayoutParams) view.getLayoutParams();
+        if (lp.clipped) {
+            view.setClipBounds(null);
+            lp.clipped = false;
+        }
+    }
+
+    /**Clears state of children which RecyclerView recycles while detaching (invalid views,
+     * ex. after notifyDataSetChanged()) or replaces by new views (changed items).
+     * State of children taken back from scrap is applied again at the end of fill()**/
+    private void clearReplacedItemsState() {
+        for (int i = 0; i < getChildCount(); i++) {
+            final View view = getChildAt(i);
+            if (view != null) {
+                final LayoutParams lp = (LayoutParams) view.getLayoutParams();
+                if (lp.isViewInvalid() || lp.isItemChanged()) {
+                    clearItemState(view);
+                }
+            }
+        }
+    }
+
+    private void updateGeometry() {
+        geometry.setItemCount(getItemCount());
+        geometry.setItemHeight(getHeight() - getPaddingBottom());
+    }
+
+    private void recycleViewsOutOfRange(RecyclerView.Recycler recycler, int startPosition, int endPosition) {
+        for (int i = getChildCount() - 1; i >= 0; i--) {
+            final View view = getChildAt(i);
+            if (view != null) {
+                final int position = getPosition(view);
+                if (position < startPosition || position > endPosition) {
+                    clearItemState(view);
+                    removeAndRecycleViewAt(i, recycler);
+                    layoutMetrics.onViewRecycled();
+                }
             }
         }
     }
@@ -82,125 +468,363 @@ public class StackLayoutManager extends RecyclerView.LayoutManager implements Re
 
     @Override
     public int scrollVerticallyBy(int dy, RecyclerView.Recycler recycler, RecyclerView.State state) {
-        return scrollBy(dy, recycler);
+        final long startTime = startMetrics(LayoutMetrics.TYPE_SCROLL);
+        final int consumed = scrollBy(dy, recycler);
+        updateItemClips();
+        finishMetrics(startTime);
+        return consumed;
+    }
+
+    /**Returns start time if metrics listener is set or 0 otherwise**/
+    private long startMetrics(int type) {
+        layoutMetrics.reset(type);
+        return layoutMetricsListener != null ? System.nanoTime() : 0;
+    }
+
+    private void finishMetrics(long startTime) {
+        final LayoutMetricsListener listener = layoutMetricsListener;
+        if (listener != null) {
+            layoutMetrics.finish(
+                    System.nanoTime() - startTime,
+                    geometry.getFirstPosition(),
+                    geometry.getScrollOffset()
+            );
+            listener.onLayoutMetrics(layoutMetrics);
+        }
+    }
+
+    @Override
+    public void onDetachedFromWindow(RecyclerView view, RecyclerView.Recycler recycler) {
+        super.onDetachedFromWindow(view, recycler);
+        if (recycleChildrenOnDetach) {
+            recycleAllViews(recycler);
+            recycler.clear();
+            layoutInvalidated = true;
+        }
+    }
+
+    /**This method is used by GapWorker for binding items of the stack when RecyclerView is nested
+     * into another one and is going to be shown: all items, which the first layout pass will add,
+     * are bound in idle time of the outer RecyclerView**/
+    @Override
+    public void collectInitialPrefetchPositions(int adapterItemCount,
+                                                LayoutPrefetchRegistry layoutPrefetchRegistry) {
+        if (adapterItemCount == 0) {
+            return;
+        }
+        final int firstPosition = Math.max(0, Math.min(adapterItemCount - 1, getTargetFirstPosition()));
+        final int startPosition = Math.max(0, firstPosition - geometry.getItemsBehind());
+        final int endPosition = (int) Math.min(
+                (long) firstPosition + geometry.getItemsAhead(),
+                adapterItemCount - 1
+        );
+        for (int i = startPosition; i <= endPosition; i++) {
+            layoutPrefetchRegistry.addPosition(i, 0);
+        }
+    }
+
+    /**This method is used by GapWorker for binding the item which will be attached by the next
+     * scroll in dy direction in idle time between frames**/
+    @Override
+    public void collectAdjacentPrefetchPositions(int dx, int dy, RecyclerView.State state,
+                                                 LayoutPrefetchRegistry layoutPrefetchRegistry) {
+        if (dy == 0 || getChildCount() == 0) {
+            return;
+        }
+        if (dy > 0) {
+            // next item after the last laid out one, it is attached when second view reaches the top
+            final int nextPosition = geometry.getLastPosition() + 1;
+            if (nextPosition < getItemCount()) {
+                layoutPrefetchRegistry.addPosition(nextPosition, geometry.getDistanceToNextPosition());
+            }
+        } else if (geometry.getStartPosition() > 0) {
+            // previous item is inserted under the first laid out view when second view
+            // returns to its place
+            layoutPrefetchRegistry.addPosition(
+                    geometry.getStartPosition() - 1,
+                    geometry.getDistanceToPreviousPosition()
+            );
+        }
     }
 
     /**This method is used for apply dy offset for child views and add/remove needed children
      * on scroll**/
     private int scrollBy(int dy, RecyclerView.Recycler recycler) {
-        final int itemCount = getItemCount();
-        if (itemCount < 2) {
+        if (getChildCount() == 0) {
             return 0;
         }
+        updateGeometry();
+        final int firstPosition = geometry.getFirstPosition();
+        final int consumed = geometry.scrollBy(dy);
+        if (consumed != 0) {
+            // translations are committed when the stack passes to another item. Programmatic
+            // scrollBy() doesn't change scroll state, so idle state won't commit them later
+            final boolean commitPositions = !translationScrollEnabled
+                    || scrollState == RecyclerView.SCROLL_STATE_IDLE
+                    || firstPosition != geometry.getFirstPosition();
+            layoutStack(recycler, commitPositions);
+            if (firstPosition != geometry.getFirstPosition()) {
+                // layer and shadows are moved to the new top items
+                updateHardwareLayers();
+                updateItemElevations();
+            }
+        }
+        return consumed;
+    }
 
-        // view fixed in the top
-        final View firstView = getChildAt(0);
-        if (firstView == null) {
-            return 0;
+    @Override
+    public void onScrollStateChanged(int state) {
+        scrollState = state;
+        if (state == RecyclerView.SCROLL_STATE_IDLE) {
+            commitScrollTranslations();
+        }
+        updateHardwareLayers();
+    }
+
+    /**Sets hardware layer to the top item during scroll and removes it from other items**/
+    private void updateHardwareLayers() {
+        final boolean scrolling = hardwareLayersEnabled && scrollState != RecyclerView.SCROLL_STATE_IDLE;
+        final int firstPosition = geometry.getFirstPosition();
+        for (int i = 0; i < getChildCount(); i++) {
+            final View view = getChildAt(i);
+            if (view != null) {
+                setHardwareLayer(view, scrolling && getPosition(view) == firstPosition);
+            }
         }
-        // count offset
-        int delta = -dy;
-        // view scrolled and overlapped first view
-        final View secondView = getChildAt(1);
-        // if secondView == null -> firstView is last item
-        if (secondView != null) {
-            // view scrolled after second view
-            View thirdView = getChildAt(2);
-            int secondViewItemPosition = getPosition(secondView);
-            if (thirdView == null && secondViewItemPosition != itemCount - 1) {
-                // we take third view from recycler where position is next after second view item
-                thirdView = addViewFromRecycler(recycler, secondViewItemPosition + 1, false);
-                measureMatchParentChild(thirdView);
-                final int viewTop = getDecoratedBottom(secondView);
-                final int viewRight = getWidth();
-                final int viewBottom = viewTop + getDecoratedMeasuredHeight(thirdView);
-                layoutDecorated(thirdView, 0, viewTop, viewRight, viewBottom);
+    }
+
+    /**Changes layer type of the view only if it was not set by the app**/
+    private void setHardwareLayer(View view, boolean enabled) {
+        final LayoutParams lp = (LayoutParams) view.getLayoutParams();
+        if (enabled && !lp.hardwareLayer) {
+            if (view.getLayerType() == View.LAYER_TYPE_NONE) {
+                view.setLayerType(View.LAYER_TYPE_HARDWARE, null);
+                lp.hardwareLayer = true;
+            }
+        } else if (!enabled && lp.hardwareLayer) {
+            lp.hardwareLayer = false;
+            // app could change layer type while it was set by StackLayoutManager
+            if (view.getLayerType() == View.LAYER_TYPE_HARDWARE) {
+                view.setLayerType(View.LAYER_TYPE_NONE, null);
             }
+        }
+    }
 
-            final int secondViewTop = secondView.getTop() + delta;
+    /**Keeps elevation of the top item and the item sliding over it, other items are covered
+     * or out of RecyclerView bounds, so their shadows are not drawn**/
+    private void updateItemElevations() {
+        final int firstPosition = geometry.getFirstPosition();
+        for (int i = 0; i < getChildCount(); i++) {
+            final View view = getChildAt(i);
+            if (view != null) {
+                final int position = getPosition(view);
+                final boolean casting = position == firstPosition || position == firstPosition + 1;
+                setElevationReduced(view, reduceCoveredElevation && !casting);
+            }
+        }
+    }
 
-            // value in range [-viewHeight; viewHeight]
-            currentScrollOffset = (currentScrollOffset + dy) % firstView.getHeight();
+    /**Sets zero elevation to the view keeping the original one for restoring**/
+    private void setElevationReduced(View view, boolean reduced) {
+        final LayoutParams lp = (LayoutParams) view.getLayoutParams();
+        if (reduced && !lp.elevationReduced) {
+            lp.originalElevation = view.getElevation();
+            lp.elevationReduced = true;
+            view.setElevation(0f);
+        } else if (!reduced && lp.elevationReduced) {
+            lp.elevationReduced = false;
+            view.setElevation(lp.originalElevation);
+        }
+    }
 
-            float scaleValue = 1f;
-            // scroll down
-            if (dy > 0) {
-                // if this case is true than second view scrolls up to max top position
-                // that's why we need to scroll it to 0 (max top position), because top value can be less than 0
-                if (secondViewTop <= 0) {
-                    delta = -secondView.getTop();
-                    currentScrollOffset = 0;
-                }
-                scaleValue = 1 - Math.abs(currentScrollOffset * scaleFactor) / firstView.getHeight();
-            } else if (dy < 0) { // scroll up
-                if (secondViewTop > getDecoratedBottom(firstView)) {
-                    // for scroll to max bottom position without overscroll
-                    delta = getDecoratedBottom(firstView) - getDecoratedTop(secondView);
-                    // if first view is not first in item list we add view under current scrolling view (it will be new first view)
-                    if (firstPosition != 0) {
-                        final View view = insertFirstView(recycler);
-                        currentScrollOffset = view.getMeasuredHeight() - delta;
-                    } else {
-                        currentScrollOffset = 0;
-                    }
-                    // remove redundant not visible fourth item
-                    if (getChildCount() > 3) {
-                        removeAndRecycleViewAt(3, recycler);
+    /**Brings attached children in line with the stack geometry: recycles views which left
+     * the stack, adds new ones and moves the rest to their places without re-layout.
+     * If commitPositions is false, views are moved by translationY only**/
+    private void layoutStack(RecyclerView.Recycler recycler, boolean commitPositions) {
+        final int startPosition = geometry.getStartPosition();
+        final int endPosition = geometry.getLastPosition();
+        recycleViewsOutOfRange(recycler, startPosition, endPosition);
+        // remaining children are sorted by position and have no gaps
+        final View firstChild = getChildAt(0);
+        if (firstChild == null) {
+            for (int i = startPosition; i <= endPosition; i++) {
+                addAndLayoutView(recycler, i, false);
+            }
+        } else {
+            // previous item is inserted under the first laid out view on scrolling back
+            for (int i = getPosition(firstChild) - 1; i >= startPosition; i--) {
+                addAndLayoutView(recycler, i, true);
+            }
+            final View lastChild = getChildAt(getChildCount() - 1);
+            for (int i = lastChild != null ? getPosition(lastChild) + 1 : endPosition + 1; i <= endPosition; i++) {
+                addAndLayoutView(recycler, i, false);
+            }
+        }
+        for (int i = 0; i < getChildCount(); i++) {
+            final View view = getChildAt(i);
+            if (view != null) {
+                final int position = startPosition + i;
+                final int delta = geometry.getItemTop(position) - getDecoratedTop(view);
+                if (commitPositions) {
+                    clearScrollTranslation(view);
+                    if (delta != 0) {
+                        view.offsetTopAndBottom(delta);
                     }
                 } else {
-                    scaleValue = 1 - Math.abs(currentScrollOffset * scaleFactor) / firstView.getHeight();
+                    setScrollTranslation(view, delta);
                 }
+                // transform-on-scroll (scale by default)
+                transformItem(view, geometry.getCoverProgress(position));
             }
+        }
+    }
 
-            offsetChildren(delta);
+    private void addAndLayoutView(RecyclerView.Recycler recycler, int position, boolean addToStart) {
+        final View view = addViewFromRecycler(recycler, position, addToStart);
+        // view is laid out at its real place
+        clearScrollTranslation(view);
+        measureMatchParentChild(view);
+        final int viewTop = geometry.getItemTop(position);
+        final int viewRight = getWidth();
+        final int viewBottom = viewTop + getDecoratedMeasuredHeight(view);
+        layoutDecorated(view, 0, viewTop, viewRight, viewBottom);
+        // views taken from recycler can keep transformation of their previous position
+        transformItem(view, geometry.getCoverProgress(position));
+    }
 
-            // scale-on-scroll
-            firstView.setScaleX(scaleValue);
-            firstView.setScaleY(scaleValue);
+    private void setScrollTranslation(View view, int translation) {
+        final LayoutParams lp = (LayoutParams) view.getLayoutParams();
+        if (lp.scrollTranslation != translation) {
+            lp.scrollTranslation = translation;
+            view.setTranslationY(translation);
+        }
+    }
 
-            // if second view completely overlaps first view (first view is not visible now) we remove first view
-            if (secondView.getTop() == 0) {
-                removeAndRecycleViewAt(0, recycler);
-                firstPosition++;
-            }
-        } else {
-            if (firstPosition == itemCount - 1 && dy < 0) {
-                final View view = insertFirstView(recycler);
-                currentScrollOffset = view.getMeasuredHeight() - delta;
-                offsetChildren(delta);
-            } else {
-                delta = 0;
+    private void clearScrollTranslation(View view) {
+        setScrollTranslation(view, 0);
+    }
+
+    /**Moves translated views to their places by layout bounds. Visible positions of views
+     * are not changed, so clip bounds stay valid**/
+    private void commitScrollTranslations() {
+        for (int i = 0; i < getChildCount(); i++) {
+            final View view = getChildAt(i);
+            if (view != null) {
+                final LayoutParams lp = (LayoutParams) view.getLayoutParams();
+                if (lp.scrollTranslation != 0) {
+                    view.offsetTopAndBottom(lp.scrollTranslation);
+                    clearScrollTranslation(view);
+                }
             }
         }
-        return delta != 0 ? dy : 0;
     }
 
-    @NonNull
-    private View insertFirstView(RecyclerView.Recycler recycler) {
-        final View view = addViewFromRecycler(recycler, firstPosition - 1, true);
-        firstPosition--;
-        measureMatchParentChild(view);
-        final int viewRight = getWidth();
-        final int viewBottom = getDecoratedMeasuredHeight(view);
-        layoutDecorated(view, 0, 0, viewRight, viewBottom);
-        view.setScaleX(scaleFactor);
-        view.setScaleY(scaleFactor);
-        return view;
+    /**Applies item transformer only if view progress was changed since the last call**/
+    private void transformItem(View view, float progress) {
+        final LayoutParams lp = (LayoutParams) view.getLayoutParams();
+        if (lp.transformer != itemTransformer) {
+            resetItemTransform(view, lp);
+        }
+        if (lp.transformProgress != progress) {
+            lp.transformProgress = progress;
+            lp.transformer = itemTransformer;
+            itemTransformer.transformItem(view, progress);
+        }
     }
 
-    private void offsetChildren(int delta) {
-        // scroll all view except first
-        for (int i = 1; i < getChildCount(); i++) {
+    /**Returns properties changed by the previous transformer to their values of not covered item**/
+    private void resetItemTransform(View view, LayoutParams lp) {
+        final ItemTransformer transformer = lp.transformer;
+        if (transformer != null && lp.transformProgress != 0f) {
+            transformer.transformItem(view, 0f);
+        }
+        lp.transformer = null;
+        lp.transformProgress = Float.NaN;
+    }
+
+    private void reapplyItemTransforms() {
+        for (int i = 0; i < getChildCount(); i++) {
             final View view = getChildAt(i);
             if (view != null) {
-                view.offsetTopAndBottom(delta);
+                final LayoutParams lp = (LayoutParams) view.getLayoutParams();
+                final float progress = lp.transformProgress;
+                if (!Float.isNaN(progress)) {
+                    if (lp.transformer == itemTransformer) {
+                        // transformer parameters were changed (ex. scale factor)
+                        lp.transformProgress = Float.NaN;
+                    }
+                    transformItem(view, progress);
+                }
+            }
+        }
+        updateItemClips();
+    }
+
+    /**Clips every item by the top of the next item (which is drawn over it) and by RecyclerView
+     * bounds. RecyclerView bottom padding is taken into account only with clipToPadding**/
+    private void updateItemClips() {
+        final int childCount = getChildCount();
+        final boolean clipToPadding = getClipToPadding();
+        final int parentTop = clipToPadding ? getPaddingTop() : 0;
+        final int parentBottom = clipToPadding ? getHeight() - getPaddingBottom() : getHeight();
+        for (int i = 0; i < childCount; i++) {
+            final View view = getChildAt(i);
+            if (view == null) {
+                continue;
+            }
+            final LayoutParams lp = (LayoutParams) view.getLayoutParams();
+            if (!clipCoveredItems || !canClip(view)) {
+                if (lp.clipped) {
+                    view.setClipBounds(null);
+                    lp.clipped = false;
+                }
+                continue;
+            }
+            float visibleBottom = parentBottom;
+            final View nextView = i + 1 < childCount ? getChildAt(i + 1) : null;
+            if (nextView != null && canClip(nextView)) {
+                visibleBottom = Math.min(visibleBottom, getVisualTop(nextView));
             }
+            calculateLocalClip(view, parentTop, visibleBottom, clipRect);
+            view.setClipBounds(clipRect);
+            lp.clipped = true;
+        }
+    }
+
+    private boolean canClip(View view) {
+        return view.getRotation() == 0f && view.getRotationX() == 0f && view.getRotationY() == 0f;
+    }
+
+    private float getVisualTop(View view) {
+        final float pivotY = view.getPivotY();
+        return view.getTop() + view.getTranslationY() + pivotY - pivotY * view.getScaleY();
+    }
+
+    /**Converts visible range in RecyclerView coordinates to view coordinates
+     * taking into account view scale and translation**/
+    private void calculateLocalClip(View view, float visibleTop, float visibleBottom, Rect outRect) {
+        final float scaleY = view.getScaleY();
+        if (scaleY <= 0f || visibleBottom <= visibleTop) {
+            outRect.setEmpty();
+            return;
+        }
+        final float pivotY = view.getPivotY();
+        final float origin = view.getTop() + view.getTranslationY() + pivotY;
+        final int localTop = (int) Math.floor(pivotY + (visibleTop - origin) / scaleY);
+        final int localBottom = (int) Math.ceil(pivotY + (visibleBottom - origin) / scaleY);
+        final int top = Math.max(0, localTop);
+        final int bottom = Math.min(view.getHeight(), localBottom);
+        if (bottom <= top) {
+            outRect.setEmpty();
+        } else {
+            outRect.set(0, top, view.getWidth(), bottom);
         }
     }
 
     @NonNull
     private View addViewFromRecycler(RecyclerView.Recycler recycler, int position, boolean addToStart) {
         final View view = recycler.getViewForPosition(position);
+        layoutMetrics.onViewFetched();
         if (addToStart) {
             addView(view, 0);
         } else {
@@ -209,21 +833,37 @@ public class StackLayoutManager extends RecyclerView.LayoutManager implements Re
         return view;
     }
 
-    private void measureMatchParentChild(View view) {
+    /**Returns true if view was measured**/
+    private boolean measureMatchParentChild(View view) {
+        final LayoutParams lp = (LayoutParams) view.getLayoutParams();
+        if (hasFixedSizeItems && lp.measureGeneration == measureGeneration && !view.isLayoutRequested()) {
+            // view has the same size as after measuring in the current generation
+            return false;
+        }
+        lp.measureGeneration = measureGeneration;
         final int widthSpec = View.MeasureSpec.makeMeasureSpec(getWidth(), View.MeasureSpec.EXACTLY);
         final int heightSpec = View.MeasureSpec.makeMeasureSpec(getHeight(), View.MeasureSpec.EXACTLY);
-        measureChildWithDecorationsAndMargin(view, widthSpec, heightSpec);
+        return measureChildWithDecorationsAndMargin(view, widthSpec, heightSpec);
     }
 
-    private void measureChildWithDecorationsAndMargin(View child, int widthSpec, int heightSpec) {
-        Rect decorRect = new Rect();
+    /**Specs are exact, so View.measure() calls onMeasure() only when child requested layout
+     * or its size was changed (ex. resizing, invalidateItemDecorations()).
+     * Returns true if child was measured**/
+    private boolean measureChildWithDecorationsAndMargin(View child, int widthSpec, int heightSpec) {
         calculateItemDecorationsForChild(child, decorRect);
-        RecyclerView.LayoutParams lp = (RecyclerView.LayoutParams) child.getLayoutParams();
+        LayoutParams lp = (LayoutParams) child.getLayoutParams();
         widthSpec = updateSpecWithExtra(widthSpec, lp.leftMargin + decorRect.left,
                 lp.rightMargin + decorRect.right);
         heightSpec = updateSpecWithExtra(heightSpec, lp.topMargin + decorRect.top,
                 lp.bottomMargin + decorRect.bottom + getPaddingBottom());
+        final boolean measured = child.isLayoutRequested()
+                || child.getMeasuredWidth() != View.MeasureSpec.getSize(widthSpec)
+                || child.getMeasuredHeight() != View.MeasureSpec.getSize(heightSpec);
         child.measure(widthSpec, heightSpec);
+        if (measured) {
+            layoutMetrics.onViewMeasured();
+        }
+        return measured;
     }
 
     private int updateSpecWithExtra(int spec, int startInset, int endInset) {
@@ -240,56 +880,293 @@ public class StackLayoutManager extends RecyclerView.LayoutManager implements Re
 
     @Override
     public void scrollToPosition(int position) {
-        requestLayout(position);
+        pendingScrollPosition = position;
+        pendingSavedState = null;
+        layoutInvalidated = true;
+        requestLayout();
+    }
+
+    @Nullable
+    @Override
+    public Parcelable onSaveInstanceState() {
+        if (pendingSavedState != null) {
+            // state was restored, but not applied yet
+            return new SavedState(pendingSavedState);
+        }
+        if (pendingScrollPosition != RecyclerView.NO_POSITION) {
+            return new SavedState(pendingScrollPosition, 0, 0);
+        }
+        return new SavedState(
+                geometry.getFirstPosition(),
+                geometry.getScrollOffset(),
+                geometry.getItemHeight()
+        );
+    }
+
+    @Override
+    public void onRestoreInstanceState(Parcelable state) {
+        if (state instanceof SavedState) {
+            pendingSavedState = (SavedState) state;
+            pendingScrollPosition = RecyclerView.NO_POSITION;
+            layoutInvalidated = true;
+            requestLayout();
+        }
     }
 
     @Override
     public void smoothScrollToPosition(RecyclerView recyclerView, RecyclerView.State state, int position) {
-        final LinearSmoothScroller linearSmoothScroller = new LinearSmoothScroller(recyclerView.getContext()) {
-            @Override
-            protected void onTargetFound(View targetView, RecyclerView.State state, Action action) {
-                View firstView = getChildAt(0);
-                if (firstView != null) {
-                    int firstChildPosition = getPosition(firstView);
-                    int targetViewPosition = getPosition(targetView);
-                    if (targetViewPosition == firstChildPosition) {
-                        View secondView = getChildAt(1);
-                        if (secondView != null) {
-                            int dy = -(getHeight() - secondView.getTop());
-                            int time = calculateTimeForDeceleration(Math.abs(dy));
-                            action.update(0, dy, time, mDecelerateInterpolator);
-                        }
-                    } else {
-                        super.onTargetFound(targetView, state, action);
-                    }
-                }
-            }
-        };
-        linearSmoothScroller.setTargetPosition(position);
-        startSmoothScroll(linearSmoothScroller);
+        final int firstPosition = getTargetFirstPosition();
+        if (smoothScrollJumpThreshold > 0 && Math.abs(position - firstPosition) > smoothScrollJumpThreshold) {
+            // jump is applied in the next layout pass, scroller finds target among the nearest items
+            final int jumpPosition = position > firstPosition
+                    ? position - SMOOTH_SCROLL_ANIMATED_ITEMS
+                    : position + SMOOTH_SCROLL_ANIMATED_ITEMS;
+            scrollToPosition(jumpPosition);
+        }
+        final StackSmoothScroller scroller = obtainSmoothScroller(recyclerView.getContext());
+        scroller.setTargetPosition(position);
+        startSmoothScroll(scroller);
+    }
+
+    /**Returns cached smooth scroller. New instance is created only for the first call
+     * or when RecyclerView context was changed**/
+    @NonNull
+    private StackSmoothScroller obtainSmoothScroller(Context context) {
+        StackSmoothScroller scroller = smoothScroller;
+        if (scroller == null || scroller.context != context) {
+            scroller = new StackSmoothScroller(context);
+            smoothScroller = scroller;
+        } else {
+            scroller.stopIfRunning();
+        }
+        return scroller;
     }
 
     @Nullable
     @Override
     public PointF computeScrollVectorForPosition(int targetPosition) {
-        final View firstChild = getChildAt(0);
-        if (getChildCount() != 0 && firstChild != null) {
-            final int firstChildPos = getPosition(firstChild);
-            final float direction = targetPosition < firstChildPos ? -1f : 1f;
-            return new PointF(0, direction);
+        if (getChildCount() != 0) {
+            // direction is counted from pending jump position, if any
+            final float direction = targetPosition < getTargetFirstPosition() ? -1f : 1f;
+            // the same instance is returned every time, callers only read (or normalize) it
+            scrollVector.set(0, direction);
+            return scrollVector;
         }
         return null;
     }
 
+    /**Returns first position which stack will have after the next layout pass**/
+    private int getTargetFirstPosition() {
+        if (pendingScrollPosition != RecyclerView.NO_POSITION) {
+            return pendingScrollPosition;
+        } else if (pendingSavedState != null) {
+            return pendingSavedState.firstPosition;
+        }
+        return geometry.getFirstPosition();
+    }
+
+    @Override
+    public boolean supportsPredictiveItemAnimations() {
+        // Stack shows only a few items at fixed places, so simple animations are enough.
+        // Predictive animations would require additional pre-layout pass on each adapter update
+        return false;
+    }
+
     @Override
     public void onItemsChanged(@NonNull RecyclerView recyclerView) {
-        super.onItemsChanged(recyclerView);
-        requestLayout(0);
+        // all children are invalid, stack position is clamped in the next layout pass
+        layoutInvalidated = true;
     }
 
-    private void requestLayout(int firstPosition) {
-        this.firstPosition = firstPosition;
-        removeAllViews();
-        requestLayout();
+    @Override
+    public void onItemsAdded(@NonNull RecyclerView recyclerView, int positionStart, int itemCount) {
+        layoutInvalidated = true;
+        // items inserted above (or in place of) the first visible item only shift the stack
+        final int firstPosition = geometry.getFirstPosition();
+        if (hasLaidOutItems() && positionStart <= firstPosition) {
+            geometry.setFirstPosition(firstPosition + itemCount);
+        }
+    }
+
+    @Override
+    public void onItemsRemoved(@NonNull RecyclerView recyclerView, int positionStart, int itemCount) {
+        layoutInvalidated = true;
+        if (!hasLaidOutItems()) {
+            return;
+        }
+        final int firstPosition = geometry.getFirstPosition();
+        if (positionStart + itemCount <= firstPosition) {
+            geometry.setFirstPosition(firstPosition - itemCount);
+        } else if (positionStart <= firstPosition) {
+            // first visible item was removed, next remaining item takes its place
+            geometry.setFirstPosition(positionStart);
+        }
+    }
+
+    @Override
+    public void onItemsMoved(@NonNull RecyclerView recyclerView, int from, int to, int itemCount) {
+        layoutInvalidated = true;
+        if (!hasLaidOutItems()) {
+            return;
+        }
+        final int firstPosition = geometry.getFirstPosition();
+        if (firstPosition >= from && firstPosition < from + itemCount) {
+            // first visible item was moved, the stack follows it as LinearLayoutManager does
+            geometry.setFirstPosition(to + firstPosition - from);
+        } else if (from < firstPosition && to >= firstPosition) {
+            geometry.setFirstPosition(firstPosition - itemCount);
+        } else if (from > firstPosition && to <= firstPosition) {
+            geometry.setFirstPosition(firstPosition + itemCount);
+        }
+    }
+
+    /**Returns true if stack position belongs to laid out items, so it must follow adapter updates.
+     * Before the first layout pass (or after all items were removed) the stack starts from 0,
+     * children can be recycled on detaching from window while position is kept**/
+    private boolean hasLaidOutItems() {
+        return geometry.getItemCount() > 0;
+    }
+
+    @Override
+    public void onItemsUpdated(@NonNull RecyclerView recyclerView, int positionStart, int itemCount) {
+        // stack position is not changed, but updated items must be rebound in the next
+        // layout pass, other children are taken from scrap as is
+        layoutInvalidated = true;
+    }
+
+    /**LayoutParams which keep generation of the last child measuring, the last progress passed
+     * to item transformer (with the transformer itself) and uncommitted scroll translation**/
+    public static class LayoutParams extends RecyclerView.LayoutParams {
+
+        // generations start from 1, so child is never treated as measured before the first measuring
+        int measureGeneration = 0;
+
+        // NaN until the first transformation, so it is always applied
+        float transformProgress = Float.NaN;
+
+        // transformer which applied transformProgress, it resets the view when transformer is changed
+        @Nullable
+        ItemTransformer transformer;
+
+        // true if clip bounds were set by StackLayoutManager
+        boolean clipped = false;
+
+        // translationY set by StackLayoutManager in translation scroll mode
+        int scrollTranslation = 0;
+
+        // true if hardware layer was set by StackLayoutManager
+        boolean hardwareLayer = false;
+
+        // true if elevation was set to 0 by StackLayoutManager, original one is kept for restoring
+        boolean elevationReduced = false;
+
+        float originalElevation = 0f;
+
+        public LayoutParams(Context c, AttributeSet attrs) {
+            super(c, attrs);
+        }
+
+        public LayoutParams(int width, int height) {
+            super(width, height);
+        }
+
+        public LayoutParams(ViewGroup.MarginLayoutParams source) {
+            super(source);
+        }
+
+        public LayoutParams(ViewGroup.LayoutParams source) {
+            super(source);
+        }
+
+        public LayoutParams(RecyclerView.LayoutParams source) {
+            super(source);
+        }
+    }
+
+    /**Stack position saved with RecyclerView state: first position and scroll offset with
+     * item height, which it was measured with**/
+    public static class SavedState implements Parcelable {
+
+        final int firstPosition;
+
+        final int scrollOffset;
+
+        final int itemHeight;
+
+        SavedState(int firstPosition, int scrollOffset, int itemHeight) {
+            this.firstPosition = firstPosition;
+            this.scrollOffset = scrollOffset;
+            this.itemHeight = itemHeight;
+        }
+
+        SavedState(SavedState other) {
+            this(other.firstPosition, other.scrollOffset, other.itemHeight);
+        }
+
+        SavedState(Parcel in) {
+            this(in.readInt(), in.readInt(), in.readInt());
+        }
+
+        @Override
+        public void writeToParcel(Parcel dest, int flags) {
+            dest.writeInt(firstPosition);
+            dest.writeInt(scrollOffset);
+            dest.writeInt(itemHeight);
+        }
+
+        @Override
+        public int describeContents() {
+            return 0;
+        }
+
+        public static final Creator<SavedState> CREATOR = new Creator<SavedState>() {
+            @Override
+            public SavedState createFromParcel(Parcel in) {
+                return new SavedState(in);
+            }
+
+            @Override
+            public SavedState[] newArray(int size) {
+                return new SavedState[size];
+            }
+        };
+    }
+
+    private class StackSmoothScroller extends LinearSmoothScroller {
+
+        private final Context context;
+
+        StackSmoothScroller(Context context) {
+            super(context);
+            this.context = context;
+        }
+
+        void stopIfRunning() {
+            if (isRunning()) {
+                stop();
+            }
+        }
+
+        @Override
+        protected void onTargetFound(View targetView, RecyclerView.State state, Action action) {
+            int firstPosition = geometry.getFirstPosition();
+            int targetViewPosition = getPosition(targetView);
+            if (targetViewPosition <= firstPosition) {
+                // target is the first item or one of covered items behind it: stack is scrolled
+                // back until the target is fully uncovered
+                int dy = -((firstPosition - targetViewPosition) * geometry.getItemHeight()
+                        + geometry.getScrollOffset());
+                if (dy != 0) {
+                    int time = calculateTimeForDeceleration(Math.abs(dy));
+                    action.update(0, dy, time, mDecelerateInterpolator);
+                }
+            } else {
+                // stack is scrolled forward until the target reaches the top, views can be
+                // translated, so distance is taken from geometry instead of view bounds
+                int dy = geometry.getItemTop(targetViewPosition);
+                int time = calculateTimeForDeceleration(dy);
+                action.update(0, dy, time, mDecelerateInterpolator);
+            }
+        }
     }
 }
@@ -0,0 +1,156 @@
+package com.alexyuzefovich.stacklayoutmanager.adapter;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.AdapterListUpdateCallback;
+import androidx.recyclerview.widget.AsyncDifferConfig;
+import androidx.recyclerview.widget.AsyncListDiffer;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.RecyclerView;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+/**
+ * Base adapter for StackLayoutManager which updates items without notifyDataSetChanged():
+ * source items (S) are decoded into display items (T) and compared with the current ones
+ * on background executor, then only changed positions are notified. StackLayoutManager keeps
+ * the stack and rebinds only changed items, with payloads if item callback provides them.
+ *
+ * Display item is decoded once per source item (ex. parsed colors, formatted texts), so binding
+ * only applies ready values. Display items of sources which are equal to the previous ones are reused
+ * wherever the sources moved (ex. after insertion at the head of the list).
+ *
+ * Note:
+ * Source items must implement equals() and hashCode(). Submitted lists must not be changed
+ * after submitting. Methods must be called on the main thread.
+ * **/
+public abstract class AsyncStackAdapter<S, T, VH extends RecyclerView.ViewHolder> extends RecyclerView.Adapter<VH> {
+
+    private final AsyncListDiffer<T> differ;
+
+    private final Executor backgroundExecutor;
+
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    // sources of the last submitted list and display items decoded from them
+    private List<S> sources = Collections.emptyList();
+
+    private List<T> items = Collections.emptyList();
+
+    // incremented on each submit, so decoding results of outdated lists are dropped
+    private int submitGeneration = 0;
+
+    public AsyncStackAdapter(@NonNull DiffUtil.ItemCallback<T> diffCallback, @NonNull Executor backgroundExecutor) {
+        this.backgroundExecutor = backgroundExecutor;
+        this.differ = new AsyncListDiffer<>(
+                new AdapterListUpdateCallback(this),
+                new AsyncDifferConfig.Builder<>(diffCallback)
+                        .setBackgroundThreadExecutor(backgroundExecutor)
+                        .build()
+        );
+    }
+
+    /**Decodes display item from source item. Called on background executor**/
+    @NonNull
+    protected abstract T decode(@NonNull S source);
+
+    /**Binds display item to the view holder**/
+    protected abstract void onBindItem(@NonNull VH holder, @NonNull T item, int position);
+
+    /**Binds only changed part of display item, payloads are returned by
+     * DiffUtil.ItemCallback.getChangePayload(). Binds the whole item by default**/
+    protected void onBindItemPayloads(@NonNull VH holder, @NonNull T item, int position,
+                                      @NonNull List<Object> payloads) {
+        onBindItem(holder, item, position);
+    }
+
+    /**Submits new list of source items. Decoding and diffing are done on background executor,
+     * adapter is notified about changed positions on the main thread**/
+    public void submitList(@Nullable final List<S> newSources) {
+        final int generation = ++submitGeneration;
+        if (newSources == null || newSources.isEmpty()) {
+            sources = Collections.emptyList();
+            items = Collections.emptyList();
+            differ.submitList(null);
+            return;
+        }
+        final List<S> oldSources = sources;
+        final List<T> oldItems = items;
+        backgroundExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                final List<T> newItems = decodeItems(oldSources, oldItems, newSources);
+                mainHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (generation != submitGeneration) {
+                            return;
+                        }
+                        sources = newSources;
+                        items = newItems;
+                        differ.submitList(newItems);
+                    }
+                });
+            }
+        });
+    }
+
+    private List<T> decodeItems(List<S> oldSources, List<T> oldItems, List<S> newSources) {
+        final int oldSize = oldSources.size();
+        final Map<S, T> decodedItems = new HashMap<>(oldSize * 4 / 3 + 1);
+        for (int i = 0; i < oldSize; i++) {
+            decodedItems.put(oldSources.get(i), oldItems.get(i));
+        }
+        final int newSize = newSources.size();
+        final List<T> newItems = new ArrayList<>(newSize);
+        for (int i = 0; i < newSize; i++) {
+            final S source = newSources.get(i);
+            T item = decodedItems.get(source);
+            if (item == null) {
+                item = decode(source);
+                // equal sources in the new list are decoded once too
+                decodedItems.put(source, item);
+            }
+            newItems.add(item);
+        }
+        return newItems;
+    }
+
+    /**Returns display items which adapter currently shows**/
+    @NonNull
+    public List<T> getCurrentList() {
+        return differ.getCurrentList();
+    }
+
+    @NonNull
+    public T getItem(int position) {
+        return differ.getCurrentList().get(position);
+    }
+
+    @Override
+    public int getItemCount() {
+        return differ.getCurrentList().size();
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull VH holder, int position) {
+        onBindItem(holder, getItem(position), position);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull VH holder, int position, @NonNull List<Object> payloads) {
+        if (payloads.isEmpty()) {
+            onBindViewHolder(holder, position);
+        } else {
+            onBindItemPayloads(holder, getItem(position), position, payloads);
+        }
+    }
+}
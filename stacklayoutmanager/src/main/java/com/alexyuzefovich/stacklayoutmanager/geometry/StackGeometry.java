@@ -0,0 +1,171 @@
+package com.alexyuzefovich.stacklayoutmanager.geometry;
+
+/**
+ * Geometry of the stack used by StackLayoutManager: stack position, scroll offset and
+ * places of items. It contains only math (without any Android dependencies), so it can be
+ * tested and benchmarked on JVM.
+ *
+ * Stack state is described by first position (item on the top of the stack) and scroll offset -
+ * distance passed by the second item from its initial place (right below the first item)
+ * to the top. Scroll offset is in range [0; itemHeight).
+ * **/
+public final class StackGeometry {
+
+    public static final int DEFAULT_ITEMS_AHEAD = 2;
+
+    public static final int DEFAULT_ITEMS_BEHIND = 0;
+
+    // count of items laid out after the first position, at least the second item is needed
+    private int itemsAhead = DEFAULT_ITEMS_AHEAD;
+
+    // count of fully covered items laid out under the first item
+    private int itemsBehind = DEFAULT_ITEMS_BEHIND;
+
+    private int itemCount;
+
+    private int itemHeight;
+
+    private int firstPosition;
+
+    private int scrollOffset;
+
+    public int getItemCount() {
+        return itemCount;
+    }
+
+    public void setItemCount(int itemCount) {
+        this.itemCount = Math.max(0, itemCount);
+    }
+
+    public int getItemHeight() {
+        return itemHeight;
+    }
+
+    /**Sets height of the stack item. Scroll offset is changed proportionally to keep
+     * the same covering progress of the first item (ex. on rotation)**/
+    public void setItemHeight(int itemHeight) {
+        itemHeight = Math.max(0, itemHeight);
+        if (this.itemHeight > 0 && itemHeight > 0 && this.itemHeight != itemHeight) {
+            scrollOffset = (int) ((long) scrollOffset * itemHeight / this.itemHeight);
+        }
+        this.itemHeight = itemHeight;
+    }
+
+    public int getItemsAhead() {
+        return itemsAhead;
+    }
+
+    /**Sets count of items laid out after the first item. The second item is always laid out,
+     * so values less than 1 are replaced by 1**/
+    public void setItemsAhead(int itemsAhead) {
+        this.itemsAhead = Math.max(1, itemsAhead);
+    }
+
+    public int getItemsBehind() {
+        return itemsBehind;
+    }
+
+    /**Sets count of covered items laid out under the first item**/
+    public void setItemsBehind(int itemsBehind) {
+        this.itemsBehind = Math.max(0, itemsBehind);
+    }
+
+    public int getFirstPosition() {
+        return firstPosition;
+    }
+
+    /**Sets first position without any checks (ex. on adapter updates),
+     * call clampPosition() before using geometry for layout**/
+    public void setFirstPosition(int firstPosition) {
+        this.firstPosition = firstPosition;
+    }
+
+    public int getScrollOffset() {
+        return scrollOffset;
+    }
+
+    public void setPosition(int firstPosition, int scrollOffset) {
+        this.firstPosition = firstPosition;
+        this.scrollOffset = scrollOffset;
+        clampPosition();
+    }
+
+    /**Makes position valid for the current item count and item height**/
+    public void clampPosition() {
+        if (itemCount == 0 || firstPosition < 0) {
+            firstPosition = 0;
+            scrollOffset = 0;
+        } else if (firstPosition >= itemCount - 1) {
+            // last item can only be shown fully
+            firstPosition = itemCount - 1;
+            scrollOffset = 0;
+        } else if (scrollOffset < 0 || itemHeight == 0) {
+            scrollOffset = 0;
+        } else if (scrollOffset >= itemHeight) {
+            scrollOffset = itemHeight - 1;
+        }
+    }
+
+    /**Returns first laid out position: the first item or the deepest item behind it**/
+    public int getStartPosition() {
+        return Math.max(0, firstPosition - itemsBehind);
+    }
+
+    /**Returns last laid out position or -1 if there are no items**/
+    public int getLastPosition() {
+        if (itemCount == 0) {
+            return -1;
+        }
+        return (int) Math.min((long) firstPosition + itemsAhead, itemCount - 1);
+    }
+
+    /**Returns top of the item at position. Items before the first position are covered
+     * on the top of the stack**/
+    public int getItemTop(int position) {
+        final int index = position - firstPosition;
+        if (index <= 0) {
+            return 0;
+        }
+        return index * itemHeight - scrollOffset;
+    }
+
+    /**Returns progress of covering item at position by the next one: 0 - item is not covered,
+     * 1 - item is fully covered**/
+    public float getCoverProgress(int position) {
+        if (position < firstPosition) {
+            return 1f;
+        } else if (position > firstPosition || itemHeight == 0) {
+            return 0f;
+        }
+        return Math.min(1f, (float) scrollOffset / itemHeight);
+    }
+
+    /**Returns distance which second item should pass to the top before the first position
+     * is increased**/
+    public int getDistanceToNextPosition() {
+        return itemHeight - scrollOffset;
+    }
+
+    /**Returns distance which second item should pass down to its initial place before
+     * the first position is decreased**/
+    public int getDistanceToPreviousPosition() {
+        return scrollOffset;
+    }
+
+    /**Applies dy to the stack position. Stack can pass any count of items in one call:
+     * position is calculated arithmetically, as if all items were placed one after another,
+     * and clamped to the first and the last items.
+     *
+     * @return consumed part of dy**/
+    public int scrollBy(int dy) {
+        if (itemCount < 2 || itemHeight == 0 || dy == 0) {
+            return 0;
+        }
+        final long current = (long) firstPosition * itemHeight + scrollOffset;
+        final long max = (long) (itemCount - 1) * itemHeight;
+        final long target = Math.max(0, Math.min(max, current + dy));
+        firstPosition = (int) (target / itemHeight);
+        scrollOffset = (int) (target % itemHeight);
+        return (int) (target - current);
+    }
+}
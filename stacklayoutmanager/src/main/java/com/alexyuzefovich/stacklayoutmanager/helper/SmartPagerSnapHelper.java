@@ -1,7 +1,10 @@
 package com.alexyuzefovich.stacklayoutmanager.helper;
 
+import android.content.Context;
 import android.util.DisplayMetrics;
 import android.view.View;
+import android.view.animation.DecelerateInterpolator;
+import android.widget.Scroller;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
@@ -9,6 +12,8 @@ import androidx.recyclerview.widget.LinearSmoothScroller;
 import androidx.recyclerview.widget.RecyclerView;
 import androidx.recyclerview.widget.SnapHelper;
 
+import com.alexyuzefovich.stacklayoutmanager.StackLayoutManager;
+
 /**
  * Helper class provides pager behavior like as PagerSnapHelper,
  * but for using with StackLayoutManager. SmartPagerSnapHelper can't guarantee correct behavior with
@@ -17,6 +22,7 @@ import androidx.recyclerview.widget.SnapHelper;
  * Note:
  * Page-by-page behavior is observed when using LinearLayoutManager. Unlike PagerSnapHelper, which
  * aligns snap view to center, SmartPagerSnapHelper will align snap view to top of RecyclerView.
+ * With multi-item fling enabled, fling passes as many items as its velocity allows.
  * **/
 public class SmartPagerSnapHelper extends SnapHelper {
 
@@ -25,21 +31,44 @@ public class SmartPagerSnapHelper extends SnapHelper {
 
     private RecyclerView recyclerView;
 
+    private boolean multiItemFlingEnabled = false;
+
+    // used for projecting fling distance by velocity
+    @Nullable
+    private Scroller flingScroller;
+
+    @Nullable
+    private SnapScroller snapScroller;
+
+    /**Enables fling over several items according to fling velocity. By default fling moves
+     * exactly one item forward or back**/
+    public void setMultiItemFlingEnabled(boolean multiItemFlingEnabled) {
+        this.multiItemFlingEnabled = multiItemFlingEnabled;
+    }
+
+    public boolean isMultiItemFlingEnabled() {
+        return multiItemFlingEnabled;
+    }
+
     @NonNull
     @Override
     public int[] calculateDistanceToFinalSnap(@NonNull RecyclerView.LayoutManager layoutManager, @NonNull View targetView) {
         int[] out = new int[2];
-        View firstView = layoutManager.getChildAt(0);
+        final int firstViewIndex = findFirstViewIndex(layoutManager);
+        View firstView = layoutManager.getChildAt(firstViewIndex);
         if (firstView != null) {
             int firstViewPosition = layoutManager.getPosition(firstView);
             int targetViewPosition = layoutManager.getPosition(targetView);
-            if (targetViewPosition == firstViewPosition) {
-                View secondView = layoutManager.getChildAt(1);
-                if (secondView != null) {
-                    out[1] = -(layoutManager.getHeight() - layoutManager.getPaddingBottom() - secondView.getTop());
-                }
+            if (targetViewPosition <= firstViewPosition) {
+                // target is the first view or one of covered views behind it
+                final int itemHeight = layoutManager.getHeight() - layoutManager.getPaddingBottom();
+                View secondView = layoutManager.getChildAt(firstViewIndex + 1);
+                final int scrollOffset = secondView != null
+                        ? itemHeight - getViewTop(layoutManager, secondView)
+                        : 0;
+                out[1] = -((firstViewPosition - targetViewPosition) * itemHeight + scrollOffset);
             } else {
-                out[1] = targetView.getTop();
+                out[1] = getViewTop(layoutManager, targetView);
             }
         }
         return out;
@@ -48,10 +77,11 @@ public class SmartPagerSnapHelper extends SnapHelper {
     @Nullable
     @Override
     public View findSnapView(RecyclerView.LayoutManager layoutManager) {
-        View firstView = layoutManager.getChildAt(0);
-        View secondView = layoutManager.getChildAt(1);
+        final int firstViewIndex = findFirstViewIndex(layoutManager);
+        View firstView = layoutManager.getChildAt(firstViewIndex);
+        View secondView = layoutManager.getChildAt(firstViewIndex + 1);
         if (firstView != null && secondView != null) {
-            if (secondView.getTop() > layoutManager.getHeight() / 2) {
+            if (getViewTop(layoutManager, secondView) > layoutManager.getHeight() / 2) {
                 return firstView;
             } else {
                 return secondView;
@@ -63,46 +93,155 @@ public class SmartPagerSnapHelper extends SnapHelper {
     @Override
     public int findTargetSnapPosition(RecyclerView.LayoutManager layoutManager, int velocityX, int velocityY) {
         boolean forwardDirection = velocityY > 0;
-        final View firstView = layoutManager.getChildAt(0);
-        final View secondView = layoutManager.getChildAt(1);
+        final int firstViewIndex = findFirstViewIndex(layoutManager);
+        final View firstView = layoutManager.getChildAt(firstViewIndex);
+        final View secondView = layoutManager.getChildAt(firstViewIndex + 1);
         if (firstView != null && secondView != null) {
+            if (multiItemFlingEnabled && flingScroller != null && snapScroller != null) {
+                return findMultiItemTargetPosition(layoutManager, firstView, secondView, velocityY);
+            }
             View targetView = forwardDirection ? secondView : firstView;
             return layoutManager.getPosition(targetView);
         }
         return RecyclerView.NO_POSITION;
     }
 
+    /**Returns index of the top view of the stack. StackLayoutManager can keep covered views
+     * behind it, they are laid out at the same top as the top view**/
+    private int findFirstViewIndex(RecyclerView.LayoutManager layoutManager) {
+        final int childCount = layoutManager.getChildCount();
+        final View firstChild = layoutManager.getChildAt(0);
+        if (firstChild == null) {
+            return 0;
+        }
+        for (int i = 1; i < childCount; i++) {
+            final View child = layoutManager.getChildAt(i);
+            if (child != null && getViewTop(layoutManager, child) > getViewTop(layoutManager, firstChild)) {
+                return i - 1;
+            }
+        }
+        return childCount - 1;
+    }
+
+    /**Returns visible top of the view. StackLayoutManager in translation scroll mode moves views
+     * by translationY until scroll becomes idle**/
+    private int getViewTop(RecyclerView.LayoutManager layoutManager, View view) {
+        if (layoutManager instanceof StackLayoutManager
+                && ((StackLayoutManager) layoutManager).isTranslationScrollEnabled()) {
+            return view.getTop() + (int) view.getTranslationY();
+        }
+        return view.getTop();
+    }
+
+    /**Projects fling distance by velocity and returns position of the item, which top is the nearest
+     * to the projected stack position in fling direction. Exact distance to this item is passed to
+     * the scroller, so items between current and target positions are scrolled over without seeking**/
+    private int findMultiItemTargetPosition(RecyclerView.LayoutManager layoutManager, View firstView,
+                                            View secondView, int velocityY) {
+        final int itemHeight = layoutManager.getHeight() - layoutManager.getPaddingBottom();
+        final int itemCount = layoutManager.getItemCount();
+        final int firstPosition = layoutManager.getPosition(firstView);
+        if (itemHeight <= 0 || itemCount == 0) {
+            return RecyclerView.NO_POSITION;
+        }
+        flingScroller.fling(0, 0, 0, velocityY, 0, 0, Integer.MIN_VALUE, Integer.MAX_VALUE);
+        final long current = (long) firstPosition * itemHeight + itemHeight - getViewTop(layoutManager, secondView);
+        final long projected = current + flingScroller.getFinalY();
+        long targetPosition = velocityY > 0
+                ? Math.max(firstPosition + 1, (projected + itemHeight - 1) / itemHeight)
+                : Math.min(firstPosition, Math.max(0, projected) / itemHeight);
+        targetPosition = Math.max(0, Math.min(itemCount - 1, targetPosition));
+        final long distance = targetPosition * itemHeight - current;
+        snapScroller.setFlingDistance((int) distance, flingScroller.getDuration());
+        return (int) targetPosition;
+    }
+
     @Nullable
     @Override
     protected RecyclerView.SmoothScroller createScroller(final RecyclerView.LayoutManager layoutManager) {
-        return new LinearSmoothScroller(recyclerView.getContext()) {
+        if (recyclerView == null) {
+            return null;
+        }
+        SnapScroller scroller = snapScroller;
+        if (scroller == null || scroller.layoutManager != layoutManager) {
+            scroller = new SnapScroller(recyclerView.getContext(), layoutManager);
+            snapScroller = scroller;
+        } else {
+            scroller.reset();
+        }
+        return scroller;
+    }
 
-            @Override
-            protected void onTargetFound(View targetView, RecyclerView.State state, Action action) {
-                final int[] out = calculateDistanceToFinalSnap(layoutManager, targetView);
-                final int dy = out[1];
+    @Override
+    public void attachToRecyclerView(@Nullable RecyclerView recyclerView) throws IllegalStateException {
+        super.attachToRecyclerView(recyclerView);
+        this.recyclerView = recyclerView;
+        snapScroller = null;
+        flingScroller = recyclerView != null
+                ? new Scroller(recyclerView.getContext(), new DecelerateInterpolator())
+                : null;
+    }
+
+    /**Scroller is reused for all flings of attached RecyclerView**/
+    private class SnapScroller extends LinearSmoothScroller {
+
+        private final RecyclerView.LayoutManager layoutManager;
 
-                final int time = calculateTimeForDeceleration(Math.abs(dy));
-                if (time > 0) {
-                    action.update(0, dy, time, mDecelerateInterpolator);
-                }
+        // exact distance to the target passed at once instead of seeking the target step by step
+        private int flingDistance;
+
+        private int flingDuration;
+
+        SnapScroller(Context context, RecyclerView.LayoutManager layoutManager) {
+            super(context);
+            this.layoutManager = layoutManager;
+        }
+
+        void reset() {
+            if (isRunning()) {
+                stop();
             }
+            flingDistance = 0;
+            flingDuration = 0;
+        }
 
-            @Override
-            protected float calculateSpeedPerPixel(DisplayMetrics displayMetrics) {
-                return MILLISECONDS_PER_INCH / displayMetrics.densityDpi;
+        void setFlingDistance(int flingDistance, int flingDuration) {
+            this.flingDistance = flingDistance;
+            this.flingDuration = flingDuration;
+        }
+
+        @Override
+        protected void updateActionForInterimTarget(Action action) {
+            if (flingDistance == 0) {
+                super.updateActionForInterimTarget(action);
+                return;
             }
+            mInterimTargetDx = 0;
+            mInterimTargetDy = flingDistance;
+            final int time = Math.max(flingDuration, calculateTimeForDeceleration(Math.abs(flingDistance)));
+            action.update(0, flingDistance, time, mDecelerateInterpolator);
+            flingDistance = 0;
+        }
+
+        @Override
+        protected void onTargetFound(View targetView, RecyclerView.State state, Action action) {
+            final int[] out = calculateDistanceToFinalSnap(layoutManager, targetView);
+            final int dy = out[1];
 
-            @Override
-            protected int calculateTimeForScrolling(int dx) {
-                return Math.min(MAX_SCROLLING_TIME, super.calculateTimeForScrolling(dx));
+            final int time = calculateTimeForDeceleration(Math.abs(dy));
+            if (time > 0) {
+                action.update(0, dy, time, mDecelerateInterpolator);
             }
-        };
-    }
+        }
 
-    @Override
-    public void attachToRecyclerView(@Nullable RecyclerView recyclerView) throws IllegalStateException {
-        super.attachToRecyclerView(recyclerView);
-        this.recyclerView = recyclerView;
+        @Override
+        protected float calculateSpeedPerPixel(DisplayMetrics displayMetrics) {
+            return MILLISECONDS_PER_INCH / displayMetrics.densityDpi;
+        }
+
+        @Override
+        protected int calculateTimeForScrolling(int dx) {
+            return Math.min(MAX_SCROLLING_TIME, super.calculateTimeForScrolling(dx));
+        }
     }
 }
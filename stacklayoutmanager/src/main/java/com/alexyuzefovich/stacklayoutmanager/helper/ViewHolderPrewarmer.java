@@ -0,0 +1,218 @@
+package com.alexyuzefovich.stacklayoutmanager.helper;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.MessageQueue;
+import android.view.ViewGroup;
+import android.widget.FrameLayout;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.alexyuzefovich.stacklayoutmanager.StackLayoutManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * Helper class creates view holders for the first layout pass of StackLayoutManager in advance
+ * and puts them into RecycledViewPool of RecyclerView, so the first layout pass only binds them.
+ * View holders can be created on background thread or on the main thread in idle time between
+ * messages. If views can't be created off the main thread, the rest of them are created in idle time.
+ *
+ * Note:
+ * Adapter must be set to RecyclerView before pre-warming, because RecyclerView clears the pool
+ * when it gets the first adapter. StackLayoutManager should be set when pre-warming is finished,
+ * otherwise the first layout pass creates view holders itself. RecyclerView passes restored
+ * state only to layout manager which is already set, so pre-warming should be skipped when
+ * state is restored (ex. after rotation). Pool must be able to keep all created view holders
+ * (5 per view type by default). All methods must be called on the main thread.
+ * Several view types are pre-warmed by several calls, callback is called when all of them are finished.
+ * **/
+public class ViewHolderPrewarmer {
+
+    public interface Callback {
+
+        /**Called on the main thread when view holders of all running requests are put into the pool.
+         * createdCount is count of view holders accepted by the pool since the previous call**/
+        void onPrewarmFinished(int createdCount);
+    }
+
+    private final RecyclerView recyclerView;
+
+    private final RecyclerView.Adapter<?> adapter;
+
+    // RecyclerView can't generate LayoutParams without LayoutManager,
+    // so views are created for plain parent and their LayoutParams are converted on attaching
+    private final ViewGroup parent;
+
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    @Nullable
+    private Callback callback;
+
+    // incremented by cancel(), requests started before it are dropped
+    private volatile int prewarmGeneration = 0;
+
+    private int runningRequestCount = 0;
+
+    private int finishedCreatedCount = 0;
+
+    public ViewHolderPrewarmer(@NonNull RecyclerView recyclerView, @NonNull RecyclerView.Adapter<?> adapter) {
+        this.recyclerView = recyclerView;
+        this.adapter = adapter;
+        this.parent = new FrameLayout(recyclerView.getContext());
+    }
+
+    /**Returns count of view holders which the first layout pass of StackLayoutManager creates
+     * for items of one view type**/
+    public static int getStackWindowSize(@NonNull StackLayoutManager stackLayoutManager) {
+        return stackLayoutManager.getItemsBehind() + 1 + stackLayoutManager.getItemsAhead();
+    }
+
+    public void setCallback(@Nullable Callback callback) {
+        this.callback = callback;
+    }
+
+    /**Creates count view holders of viewType with executor and puts them into the pool
+     * on the main thread**/
+    public void prewarmInBackground(final int viewType, final int count, @NonNull Executor executor) {
+        final Request request = startRequest();
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                final List<RecyclerView.ViewHolder> holders = new ArrayList<>(count);
+                try {
+                    while (holders.size() < count && !request.isCancelled()) {
+                        holders.add(adapter.createViewHolder(parent, viewType));
+                    }
+                } catch (RuntimeException e) {
+                    // ex. view creates Handler in constructor, it can be created on the main thread only
+                }
+                mainHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (request.isCancelled()) {
+                            return;
+                        }
+                        for (RecyclerView.ViewHolder holder : holders) {
+                            putToPool(request, holder);
+                        }
+                        final int remaining = count - holders.size();
+                        if (remaining > 0) {
+                            createOnIdle(request, viewType, remaining);
+                        } else {
+                            finish(request);
+                        }
+                    }
+                });
+            }
+        });
+    }
+
+    /**Creates count view holders of viewType on the main thread, one view holder
+     * per idle time of the main thread message queue, so pending messages (ex. frames)
+     * are handled between creations**/
+    public void prewarmOnIdle(int viewType, int count) {
+        createOnIdle(startRequest(), viewType, count);
+    }
+
+    /**Stops all running requests, already created view holders stay in the pool**/
+    public void cancel() {
+        prewarmGeneration++;
+        runningRequestCount = 0;
+        finishedCreatedCount = 0;
+    }
+
+    private Request startRequest() {
+        runningRequestCount++;
+        return new Request(prewarmGeneration);
+    }
+
+    private void createOnIdle(Request request, int viewType, int count) {
+        Looper.myQueue().addIdleHandler(new IdleCreator(request, viewType, count));
+    }
+
+    /**Counts the view holder only if the pool accepted it (pool drops view holders over its limit)**/
+    private void putToPool(Request request, RecyclerView.ViewHolder holder) {
+        final RecyclerView.RecycledViewPool pool = recyclerView.getRecycledViewPool();
+        final int viewType = holder.getItemViewType();
+        final int pooledCount = pool.getRecycledViewCount(viewType);
+        pool.putRecycledView(holder);
+        if (pool.getRecycledViewCount(viewType) > pooledCount) {
+            request.createdCount++;
+        }
+    }
+
+    private void finish(Request request) {
+        finishedCreatedCount += request.createdCount;
+        runningRequestCount--;
+        if (runningRequestCount > 0) {
+            return;
+        }
+        final int createdCount = finishedCreatedCount;
+        finishedCreatedCount = 0;
+        final Callback callback = this.callback;
+        if (callback != null) {
+            callback.onPrewarmFinished(createdCount);
+        }
+    }
+
+    /**Token of one prewarmInBackground() or prewarmOnIdle() call**/
+    private class Request {
+
+        private final int generation;
+
+        // accessed on the main thread only
+        private int createdCount = 0;
+
+        Request(int generation) {
+            this.generation = generation;
+        }
+
+        boolean isCancelled() {
+            return generation != prewarmGeneration;
+        }
+    }
+
+    /**Creates one view holder per idle time. Idle handler is called again only after the next
+     * message, so it is re-added by posted message instead of being kept in the queue**/
+    private class IdleCreator implements MessageQueue.IdleHandler, Runnable {
+
+        private final Request request;
+
+        private final int viewType;
+
+        private int remaining;
+
+        IdleCreator(Request request, int viewType, int count) {
+            this.request = request;
+            this.viewType = viewType;
+            this.remaining = count;
+        }
+
+        @Override
+        public boolean queueIdle() {
+            if (request.isCancelled()) {
+                return false;
+            }
+            putToPool(request, adapter.createViewHolder(parent, viewType));
+            remaining--;
+            if (remaining > 0) {
+                mainHandler.post(this);
+            } else {
+                finish(request);
+            }
+            return false;
+        }
+
+        @Override
+        public void run() {
+            if (!request.isCancelled()) {
+                Looper.myQueue().addIdleHandler(this);
+            }
+        }
+    }
+}
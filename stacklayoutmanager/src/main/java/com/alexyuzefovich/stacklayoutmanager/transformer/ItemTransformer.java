@@ -0,0 +1,23 @@
+package com.alexyuzefovich.stacklayoutmanager.transformer;
+
+import android.view.View;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Transformer applies visual effects (scale, alpha, elevation, rotation etc.) to items of
+ * StackLayoutManager depending on how much each item is covered by the next one.
+ *
+ * Note:
+ * Transformer is called only when item progress was changed since the previous call,
+ * so it should set all properties it uses for any progress value.
+ * **/
+public interface ItemTransformer {
+
+    /**
+     * @param view item view
+     * @param progress value in range [0; 1], where 0 - item is not covered by the next item,
+     *                 1 - item is fully covered by the next item
+     * **/
+    void transformItem(@NonNull View view, float progress);
+}
@@ -0,0 +1,41 @@
+package com.alexyuzefovich.stacklayoutmanager.transformer;
+
+import android.view.View;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Default transformer of StackLayoutManager, which scales item down while it is covered
+ * by the next item. Fully covered item has scale (1 - scaleFactor).
+ * **/
+public class ScaleItemTransformer implements ItemTransformer {
+
+    private static final float DEFAULT_SCALE_FACTOR = 1;
+
+    private float scaleFactor = DEFAULT_SCALE_FACTOR;
+
+    public ScaleItemTransformer() {
+    }
+
+    public ScaleItemTransformer(float scaleFactor) {
+        setScaleFactor(scaleFactor);
+    }
+
+    public float getScaleFactor() {
+        return scaleFactor;
+    }
+
+    public void setScaleFactor(float scaleFactor) {
+        this.scaleFactor =
+                scaleFactor >= 0f && scaleFactor <= 1f
+                        ? scaleFactor
+                        : DEFAULT_SCALE_FACTOR;
+    }
+
+    @Override
+    public void transformItem(@NonNull View view, float progress) {
+        final float scaleValue = 1 - progress * scaleFactor;
+        view.setScaleX(scaleValue);
+        view.setScaleY(scaleValue);
+    }
+}
@@ -0,0 +1,248 @@
+package com.alexyuzefovich.stacklayoutmanager;
+
+import android.view.View;
+import android.view.ViewGroup;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.alexyuzefovich.stacklayoutmanager.adapter.AsyncStackAdapter;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Bind and decode count comparison (not a timing benchmark) of updating 10k items through
+ * AsyncStackAdapter (background decoding and diffing) and through notifyDataSetChanged()
+ * of an adapter which decodes display data on every bind.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class AsyncStackAdapterTest {
+
+    private static final int ITEM_COUNT = 10000;
+
+    private static final Executor DIRECT_EXECUTOR = new Executor() {
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+    };
+
+    @Test
+    public void updateWithDiffRebindsOnlyChangedVisibleItem() {
+        final DiffAdapter adapter = new DiffAdapter();
+        adapter.submitList(createSources(-1));
+        ShadowLooper.runUiThreadTasks();
+        assertEquals(ITEM_COUNT, adapter.decodeCount);
+
+        final StackLayoutManager layoutManager = new StackLayoutManager();
+        final RecyclerView recyclerView = TestRecyclerViews.create(layoutManager, adapter);
+        adapter.resetCounters();
+
+        adapter.submitList(createSources(1));
+        ShadowLooper.runUiThreadTasks();
+        TestRecyclerViews.layout(recyclerView);
+
+        // only the changed source is decoded, binding doesn't decode at all
+        assertEquals(1, adapter.decodeCount);
+        assertEquals(0, adapter.bindCount);
+        assertEquals(1, adapter.payloadBindCount);
+        assertEquals(3, layoutManager.getChildCount());
+    }
+
+    @Test
+    public void insertAtHeadDecodesOnlyInsertedItem() {
+        final DiffAdapter adapter = new DiffAdapter();
+        adapter.submitList(createSources(-1));
+        ShadowLooper.runUiThreadTasks();
+        final StackLayoutManager layoutManager = new StackLayoutManager();
+        final RecyclerView recyclerView = TestRecyclerViews.create(layoutManager, adapter);
+        adapter.resetCounters();
+
+        final List<Item> sources = createSources(-1);
+        sources.add(0, new Item(-1, -1));
+        adapter.submitList(sources);
+        ShadowLooper.runUiThreadTasks();
+        TestRecyclerViews.layout(recyclerView);
+
+        // display items of shifted sources are reused
+        assertEquals(1, adapter.decodeCount);
+        assertEquals(ITEM_COUNT + 1, adapter.getItemCount());
+        // the stack keeps its items, inserted item is above them
+        assertEquals(0, adapter.bindCount);
+        assertEquals(1, layoutManager.getPosition(layoutManager.getChildAt(0)));
+    }
+
+    @Test
+    public void updateWithNotifyDataSetChangedRebindsWholeStack() {
+        final NotifyAdapter adapter = new NotifyAdapter();
+        adapter.setItems(createSources(-1));
+        final StackLayoutManager layoutManager = new StackLayoutManager();
+        final RecyclerView recyclerView = TestRecyclerViews.create(layoutManager, adapter);
+        adapter.resetCounters();
+
+        adapter.setItems(createSources(1));
+        TestRecyclerViews.layout(recyclerView);
+
+        // all items of the stack are rebound and decoded on the main thread
+        assertEquals(3, adapter.bindCount);
+        assertEquals(3, adapter.mainThreadDecodeCount);
+    }
+
+    /**Returns sources of items, value of the item at changedPosition is changed**/
+    private static List<Item> createSources(int changedPosition) {
+        final List<Item> sources = new ArrayList<>(ITEM_COUNT);
+        for (int i = 0; i < ITEM_COUNT; i++) {
+            sources.add(new Item(i, i == changedPosition ? -i : i));
+        }
+        return sources;
+    }
+
+    private static final class Item {
+
+        final int id;
+        final int value;
+
+        Item(int id, int value) {
+            this.id = id;
+            this.value = value;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Item)) {
+                return false;
+            }
+            final Item item = (Item) o;
+            return id == item.id && value == item.value;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * id + value;
+        }
+    }
+
+    private static final class DecodedItem {
+
+        final Item source;
+        final String text;
+
+        DecodedItem(Item source, String text) {
+            this.source = source;
+            this.text = text;
+        }
+    }
+
+    private static final class DiffAdapter extends AsyncStackAdapter<Item, DecodedItem, RecyclerView.ViewHolder> {
+
+        int decodeCount;
+        int bindCount;
+        int payloadBindCount;
+
+        DiffAdapter() {
+            super(new DiffUtil.ItemCallback<DecodedItem>() {
+                @Override
+                public boolean areItemsTheSame(@NonNull DecodedItem oldItem, @NonNull DecodedItem newItem) {
+                    return oldItem.source.id == newItem.source.id;
+                }
+
+                @Override
+                public boolean areContentsTheSame(@NonNull DecodedItem oldItem, @NonNull DecodedItem newItem) {
+                    return oldItem.source.value == newItem.source.value;
+                }
+
+                @Nullable
+                @Override
+                public Object getChangePayload(@NonNull DecodedItem oldItem, @NonNull DecodedItem newItem) {
+                    return newItem.text;
+                }
+            }, DIRECT_EXECUTOR);
+        }
+
+        void resetCounters() {
+            decodeCount = 0;
+            bindCount = 0;
+            payloadBindCount = 0;
+        }
+
+        @NonNull
+        @Override
+        protected DecodedItem decode(@NonNull Item source) {
+            decodeCount++;
+            return new DecodedItem(source, String.valueOf(source.value));
+        }
+
+        @NonNull
+        @Override
+        public RecyclerView.ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+            return new RecyclerView.ViewHolder(new View(parent.getContext())) {};
+        }
+
+        @Override
+        protected void onBindItem(@NonNull RecyclerView.ViewHolder holder, @NonNull DecodedItem item, int position) {
+            bindCount++;
+            holder.itemView.setContentDescription(item.text);
+        }
+
+        @Override
+        protected void onBindItemPayloads(@NonNull RecyclerView.ViewHolder holder, @NonNull DecodedItem item,
+                                          int position, @NonNull List<Object> payloads) {
+            payloadBindCount++;
+            holder.itemView.setContentDescription(item.text);
+        }
+    }
+
+    private static final class NotifyAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
+
+        private final List<Item> items = new ArrayList<>();
+
+        int mainThreadDecodeCount;
+        int bindCount;
+
+        void setItems(List<Item> newItems) {
+            items.clear();
+            items.addAll(newItems);
+            notifyDataSetChanged();
+        }
+
+        void resetCounters() {
+            mainThreadDecodeCount = 0;
+            bindCount = 0;
+        }
+
+        @NonNull
+        @Override
+        public RecyclerView.ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+            return new RecyclerView.ViewHolder(new View(parent.getContext())) {};
+        }
+
+        @Override
+        public void onBindViewHolder(@NonNull RecyclerView.ViewHolder holder, int position) {
+            bindCount++;
+            // display data is decoded on every bind
+            mainThreadDecodeCount++;
+            holder.itemView.setContentDescription(String.valueOf(items.get(position).value));
+        }
+
+        @Override
+        public int getItemCount() {
+            return items.size();
+        }
+    }
+}
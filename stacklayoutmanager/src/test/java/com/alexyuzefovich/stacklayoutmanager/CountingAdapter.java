@@ -0,0 +1,82 @@
+package com.alexyuzefovich.stacklayoutmanager;
+
+import android.content.Context;
+import android.view.View;
+import android.view.ViewGroup;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+/**
+ * Test adapter which counts created and bound view holders, measures and layouts of item views.
+ */
+class CountingAdapter extends RecyclerView.Adapter<CountingAdapter.Holder> {
+
+    private int itemCount;
+
+    int createCount;
+
+    int bindCount;
+
+    int measureCount;
+
+    int layoutCount;
+
+    CountingAdapter(int itemCount) {
+        this.itemCount = itemCount;
+    }
+
+    void setItemCount(int itemCount) {
+        this.itemCount = itemCount;
+    }
+
+    void resetCounters() {
+        createCount = 0;
+        bindCount = 0;
+        measureCount = 0;
+        layoutCount = 0;
+    }
+
+    @NonNull
+    @Override
+    public Holder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        createCount++;
+        return new Holder(new CountingView(parent.getContext()));
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull Holder holder, int position) {
+        bindCount++;
+    }
+
+    @Override
+    public int getItemCount() {
+        return itemCount;
+    }
+
+    static class Holder extends RecyclerView.ViewHolder {
+
+        Holder(@NonNull View itemView) {
+            super(itemView);
+        }
+    }
+
+    private class CountingView extends View {
+
+        CountingView(Context context) {
+            super(context);
+        }
+
+        @Override
+        protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+            super.onMeasure(widthMeasureSpec, heightMeasureSpec);
+            measureCount++;
+        }
+
+        @Override
+        protected void onLayout(boolean changed, int left, int top, int right, int bottom) {
+            super.onLayout(changed, left, top, right, bottom);
+            layoutCount++;
+        }
+    }
+}
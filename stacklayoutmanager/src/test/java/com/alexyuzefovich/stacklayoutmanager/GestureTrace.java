@@ -0,0 +1,118 @@
+package com.alexyuzefovich.stacklayoutmanager;
+
+import androidx.annotation.NonNull;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Gesture trace recorded by GestureTraceRecorder of the sample app: one event per line
+ * "time_ms type value", lines starting with # are comments. Types: D - drag by value px (touch slop
+ * excluded), F - fling with value px/s velocity measured on device (positive value flings forward,
+ * the replay passes it to SmartPagerSnapHelper), U - release without fling.
+ * Every trace has line "# expect first_position scroll_offset" with the stack position replay must end at.
+ */
+final class GestureTrace {
+
+    static final char DRAG = 'D';
+    static final char FLING = 'F';
+    static final char RELEASE = 'U';
+
+    private static final String EXPECT_PREFIX = "# expect ";
+
+    final String name;
+
+    final List<Event> events;
+
+    final int expectedFirstPosition;
+
+    final int expectedScrollOffset;
+
+    private GestureTrace(String name, List<Event> events, int expectedFirstPosition, int expectedScrollOffset) {
+        this.name = name;
+        this.events = Collections.unmodifiableList(events);
+        this.expectedFirstPosition = expectedFirstPosition;
+        this.expectedScrollOffset = expectedScrollOffset;
+    }
+
+    /**Loads trace from traces/ test resources**/
+    @NonNull
+    static GestureTrace load(@NonNull String name) {
+        final String path = "traces/" + name;
+        final List<Event> events = new ArrayList<>();
+        int[] expected = null;
+        try (InputStream stream = GestureTrace.class.getResourceAsStream(path)) {
+            if (stream == null) {
+                throw new AssertionError(path + " not found");
+            }
+            final BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(stream, Charset.forName("UTF-8")));
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (line.startsWith(EXPECT_PREFIX)) {
+                    expected = parseExpected(line, path, lineNumber);
+                } else if (!line.isEmpty() && !line.startsWith("#")) {
+                    events.add(parseEvent(line, path, lineNumber));
+                }
+            }
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+        if (expected == null) {
+            throw new AssertionError(path + " has no \"" + EXPECT_PREFIX + "first_position scroll_offset\" line");
+        }
+        return new GestureTrace(name, events, expected[0], expected[1]);
+    }
+
+    private static int[] parseExpected(String line, String path, int lineNumber) {
+        final String[] parts = line.substring(EXPECT_PREFIX.length()).trim().split("\\s+");
+        if (parts.length != 2) {
+            throw new AssertionError(path + ":" + lineNumber + " invalid expectation: " + line);
+        }
+        return new int[] { Integer.parseInt(parts[0]), Integer.parseInt(parts[1]) };
+    }
+
+    private static Event parseEvent(String line, String path, int lineNumber) {
+        final String[] parts = line.split("\\s+");
+        if (parts.length != 3 || parts[1].length() != 1) {
+            throw new AssertionError(path + ":" + lineNumber + " invalid event: " + line);
+        }
+        final char type = parts[1].charAt(0);
+        if (type != DRAG && type != FLING && type != RELEASE) {
+            throw new AssertionError(path + ":" + lineNumber + " unknown event type: " + type);
+        }
+        return new Event(Long.parseLong(parts[0]), type, Integer.parseInt(parts[2]));
+    }
+
+    int countEvents(char type) {
+        int count = 0;
+        for (Event event : events) {
+            if (event.type == type) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    static final class Event {
+
+        final long timeMillis;
+        final char type;
+        final int value;
+
+        Event(long timeMillis, char type, int value) {
+            this.timeMillis = timeMillis;
+            this.type = type;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.alexyuzefovich.stacklayoutmanager;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Replays recorded gesture traces from traces/ resources. Every trace is replayed twice on new
+ * RecyclerViews, both replays must end at the position expected by the trace, every recorded fling
+ * must be replayed as fling and releases without fling must not fling. Latency distribution
+ * of scroll and layout calls and the final position are written to build/reports/gesture-traces.
+ *
+ * New traces are recorded in the sample app (see GestureTraceRecorder) and copied to traces/,
+ * their expected position is checked by hand (item height differs from the device one).
+ * No device-recorded trace is checked in yet, drag_reversals.trace is hand-written.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class GestureTraceReplayTest {
+
+    private static final int ITEM_COUNT = 100;
+
+    @Test
+    public void dragReversals() throws IOException {
+        replay("drag_reversals.trace", false);
+    }
+
+    @Test
+    public void dragReversalsWithTranslationScroll() throws IOException {
+        replay("drag_reversals.trace", true);
+    }
+
+    private void replay(String traceName, boolean translationScroll) throws IOException {
+        final GestureTrace trace = GestureTrace.load(traceName);
+        final GestureTraceReplayer.Report report =
+                new GestureTraceReplayer(createHarness(translationScroll)).replay(trace);
+        final GestureTraceReplayer.Report repeatedReport =
+                new GestureTraceReplayer(createHarness(translationScroll)).replay(trace);
+
+        assertTrue(report.callCount > 0);
+        assertEquals(trace.countEvents(GestureTrace.FLING), report.flingCount);
+        assertEquals(0, report.unexpectedFlingCount);
+        assertEquals(trace.expectedFirstPosition, report.firstPosition);
+        assertEquals(trace.expectedScrollOffset, report.scrollOffset);
+        assertEquals(report.firstPosition, repeatedReport.firstPosition);
+        assertEquals(report.scrollOffset, repeatedReport.scrollOffset);
+        if (!translationScroll) {
+            // latencies are compared between builds for the default mode only
+            report.write();
+        }
+    }
+
+    /**Translation scroll and hardware layers are switched by scroll state changes of dragging
+     * and settling, so they must end at the same expected position as the default mode**/
+    private static LayoutCostHarness createHarness(boolean translationScroll) {
+        final LayoutCostHarness harness = new LayoutCostHarness(ITEM_COUNT);
+        harness.layoutManager.setTranslationScrollEnabled(translationScroll);
+        harness.layoutManager.setHardwareLayersEnabled(translationScroll);
+        return harness;
+    }
+}
@@ -0,0 +1,215 @@
+package com.alexyuzefovich.stacklayoutmanager;
+
+import android.os.SystemClock;
+import android.view.MotionEvent;
+import android.view.ViewConfiguration;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+import org.robolectric.shadows.ShadowLooper;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replays gesture trace against RecyclerView of LayoutCostHarness by dispatching touch events,
+ * so RecyclerView handles them as on device: it enters dragging state after touch slop, decides
+ * whether the release is a fling and SmartPagerSnapHelper snaps the stack when scroll becomes idle.
+ * Velocity measured on device is passed to SmartPagerSnapHelper instead of the one measured from
+ * replayed moves, flings are counted, so the test can check that every recorded fling was replayed.
+ * Touch down is dispatched one frame before the first move of a gesture, the first move includes
+ * touch slop (recorded drags don't). Robolectric clock is advanced to time of every event, so flings
+ * and snaps are interrupted by the next gesture as on device.
+ *
+ * Time of every scrollVerticallyBy() and onLayoutChildren() call is taken from LayoutMetrics.
+ */
+final class GestureTraceReplayer {
+
+    private static final long FRAME_MILLIS = 16;
+
+    private final LayoutCostHarness harness;
+
+    private final int touchSlop;
+
+    private long[] latencies = new long[256];
+
+    private int latencyCount;
+
+    private int firstPosition;
+
+    private int scrollOffset;
+
+    // uptime of the trace start
+    private long startTime;
+
+    // time of touch down of the current gesture, -1 when finger is up
+    private long downTime = -1;
+
+    private int touchY;
+
+    // the first move of the gesture is reduced by touch slop, unless touch down caught settling scroll
+    private boolean touchSlopPending;
+
+    // velocity of F event being replayed, 0 for release without fling
+    private int recordedFlingVelocity;
+
+    private int flingCount;
+
+    private int unexpectedFlingCount;
+
+    GestureTraceReplayer(@NonNull LayoutCostHarness harness) {
+        this.harness = harness;
+        touchSlop = ViewConfiguration.get(harness.recyclerView.getContext()).getScaledTouchSlop();
+    }
+
+    @NonNull
+    Report replay(@NonNull GestureTrace trace) {
+        latencyCount = 0;
+        harness.layoutManager.setLayoutMetricsListener(new LayoutMetricsListener() {
+            @Override
+            public void onLayoutMetrics(@NonNull LayoutMetrics metrics) {
+                if (latencyCount == latencies.length) {
+                    latencies = Arrays.copyOf(latencies, latencies.length * 2);
+                }
+                latencies[latencyCount++] = metrics.getElapsedNanos();
+                firstPosition = metrics.getFirstPosition();
+                scrollOffset = metrics.getScrollOffset();
+            }
+        });
+        flingCount = 0;
+        unexpectedFlingCount = 0;
+        final RecyclerView recyclerView = harness.recyclerView;
+        recyclerView.setOnFlingListener(null);
+        recyclerView.setOnFlingListener(new RecyclerView.OnFlingListener() {
+            @Override
+            public boolean onFling(int velocityX, int velocityY) {
+                if (recordedFlingVelocity == 0) {
+                    unexpectedFlingCount++;
+                    return harness.snapHelper.onFling(velocityX, velocityY);
+                }
+                flingCount++;
+                return harness.snapHelper.onFling(velocityX, recordedFlingVelocity);
+            }
+        });
+        startTime = SystemClock.uptimeMillis() + FRAME_MILLIS;
+        for (GestureTrace.Event event : trace.events) {
+            final long eventTime = startTime + event.timeMillis;
+            if (downTime < 0) {
+                touchDown(eventTime - FRAME_MILLIS);
+            }
+            idleUntil(eventTime);
+            switch (event.type) {
+                case GestureTrace.DRAG:
+                    int dy = event.value;
+                    if (touchSlopPending) {
+                        dy += dy > 0 ? touchSlop : -touchSlop;
+                        touchSlopPending = false;
+                    }
+                    touchY -= dy;
+                    dispatchTouchEvent(MotionEvent.ACTION_MOVE, eventTime);
+                    break;
+                case GestureTrace.FLING:
+                case GestureTrace.RELEASE:
+                    recordedFlingVelocity = event.type == GestureTrace.FLING ? event.value : 0;
+                    dispatchTouchEvent(MotionEvent.ACTION_UP, eventTime);
+                    recordedFlingVelocity = 0;
+                    downTime = -1;
+                    break;
+            }
+        }
+        ShadowLooper.runUiThreadTasksIncludingDelayedTasks();
+        harness.layoutManager.setLayoutMetricsListener(null);
+        recyclerView.setOnFlingListener(null);
+        recyclerView.setOnFlingListener(harness.snapHelper);
+        return new Report(trace.name, trace.events.size(), Arrays.copyOf(latencies, latencyCount),
+                flingCount, unexpectedFlingCount, firstPosition, scrollOffset);
+    }
+
+    private void touchDown(long time) {
+        idleUntil(time);
+        downTime = time;
+        touchY = LayoutCostHarness.HEIGHT / 2;
+        // touch down stops fling or snap in progress and continues dragging without touch slop
+        touchSlopPending = harness.recyclerView.getScrollState() != RecyclerView.SCROLL_STATE_SETTLING;
+        dispatchTouchEvent(MotionEvent.ACTION_DOWN, time);
+    }
+
+    private void idleUntil(long time) {
+        ShadowLooper.idleMainLooper(Math.max(0, time - SystemClock.uptimeMillis()), TimeUnit.MILLISECONDS);
+    }
+
+    private void dispatchTouchEvent(int action, long eventTime) {
+        final MotionEvent event = MotionEvent.obtain(
+                downTime, eventTime, action, LayoutCostHarness.WIDTH / 2f, touchY, 0);
+        harness.recyclerView.dispatchTouchEvent(event);
+        event.recycle();
+    }
+
+    static final class Report {
+
+        final String traceName;
+        final int eventCount;
+        final int callCount;
+        final long p50Nanos;
+        final long p99Nanos;
+        // flings replayed with recorded velocity
+        final int flingCount;
+        // flings of releases recorded without fling
+        final int unexpectedFlingCount;
+        final int firstPosition;
+        final int scrollOffset;
+
+        Report(String traceName, int eventCount, long[] latencies, int flingCount, int unexpectedFlingCount,
+               int firstPosition, int scrollOffset) {
+            this.traceName = traceName;
+            this.eventCount = eventCount;
+            this.callCount = latencies.length;
+            Arrays.sort(latencies);
+            this.p50Nanos = percentile(latencies, 0.5);
+            this.p99Nanos = percentile(latencies, 0.99);
+            this.flingCount = flingCount;
+            this.unexpectedFlingCount = unexpectedFlingCount;
+            this.firstPosition = firstPosition;
+            this.scrollOffset = scrollOffset;
+        }
+
+        /**Returns nearest-rank percentile of sorted values**/
+        private static long percentile(long[] sortedValues, double percentile) {
+            if (sortedValues.length == 0) {
+                return 0;
+            }
+            final int rank = (int) Math.ceil(percentile * sortedValues.length);
+            return sortedValues[Math.max(0, rank - 1)];
+        }
+
+        /**Writes report to build/reports/gesture-traces, so reports of different builds can be diffed**/
+        void write() throws IOException {
+            final File directory = new File("build/reports/gesture-traces");
+            if (!directory.isDirectory() && !directory.mkdirs()) {
+                throw new IOException("Can't create " + directory);
+            }
+            try (Writer writer = new FileWriter(new File(directory, traceName + ".txt"))) {
+                writer.write(toString());
+                writer.write('\n');
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "trace=" + traceName
+                    + ", events=" + eventCount
+                    + ", calls=" + callCount
+                    + ", p50=" + p50Nanos + "ns"
+                    + ", p99=" + p99Nanos + "ns"
+                    + ", flings=" + flingCount
+                    + ", unexpectedFlings=" + unexpectedFlingCount
+                    + ", firstPosition=" + firstPosition
+                    + ", scrollOffset=" + scrollOffset;
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.alexyuzefovich.stacklayoutmanager;
+
+import android.app.Activity;
+import android.view.View;
+import android.widget.FrameLayout;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.alexyuzefovich.stacklayoutmanager.helper.SmartPagerSnapHelper;
+
+import org.robolectric.Robolectric;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+
+/**
+ * RecyclerView with StackLayoutManager and SmartPagerSnapHelper attached to activity window,
+ * which records layout costs of scripted steps and checks them against budgets from
+ * layout_cost_budgets.properties.
+ */
+final class LayoutCostHarness {
+
+    static final int WIDTH = TestRecyclerViews.WIDTH;
+    static final int HEIGHT = TestRecyclerViews.HEIGHT;
+
+    private static final String BUDGETS_FILE = "layout_cost_budgets.properties";
+
+    final RecyclerView recyclerView;
+    final StackLayoutManager layoutManager;
+    final CountingAdapter adapter;
+    final SmartPagerSnapHelper snapHelper;
+
+    private final Properties budgets;
+
+    LayoutCostHarness(int itemCount) {
+        final Activity activity = Robolectric.buildActivity(Activity.class).setup().get();
+        recyclerView = new RecyclerView(activity);
+        layoutManager = new StackLayoutManager();
+        layoutManager.setScaleFactor(0.5f);
+        adapter = new CountingAdapter(itemCount);
+        recyclerView.setLayoutManager(layoutManager);
+        recyclerView.setAdapter(adapter);
+        snapHelper = new SmartPagerSnapHelper();
+        snapHelper.attachToRecyclerView(recyclerView);
+        final FrameLayout root = new FrameLayout(activity);
+        root.addView(recyclerView, new FrameLayout.LayoutParams(WIDTH, HEIGHT));
+        activity.setContentView(root);
+        budgets = loadBudgets();
+    }
+
+    /**Runs step action, lets RecyclerView finish layout, scroll and animations
+     * and returns counts recorded during the step**/
+    @NonNull
+    Cost run(@NonNull Runnable action) {
+        adapter.resetCounters();
+        action.run();
+        idle();
+        return new Cost(
+                adapter.createCount,
+                adapter.bindCount,
+                adapter.measureCount,
+                adapter.layoutCount,
+                layoutManager.getChildCount()
+        );
+    }
+
+    void idle() {
+        ShadowLooper.runUiThreadTasksIncludingDelayedTasks();
+    }
+
+    /**Scrolls by distance with equal steps, as slow drag does**/
+    void drag(int distance, int step) {
+        final int direction = distance > 0 ? 1 : -1;
+        int remaining = Math.abs(distance);
+        while (remaining > 0) {
+            final int dy = Math.min(step, remaining);
+            recyclerView.scrollBy(0, direction * dy);
+            remaining -= dy;
+        }
+    }
+
+    /**Scrolls with deltas decelerating from startDy to 1 during frames, as fling does**/
+    void fling(int startDy, int frames) {
+        final int direction = startDy > 0 ? 1 : -1;
+        for (int i = 0; i < frames; i++) {
+            final int dy = Math.max(1, Math.abs(startDy) * (frames - i) / frames);
+            recyclerView.scrollBy(0, direction * dy);
+        }
+    }
+
+    int getFirstVisiblePosition() {
+        final View firstView = layoutManager.getChildAt(0);
+        return firstView != null ? layoutManager.getPosition(firstView) : RecyclerView.NO_POSITION;
+    }
+
+    void assertWithinBudget(@NonNull String step, @NonNull Cost cost) {
+        assertMetric(step, "create", cost.createCount, cost);
+        assertMetric(step, "bind", cost.bindCount, cost);
+        assertMetric(step, "measure", cost.measureCount, cost);
+        assertMetric(step, "layout", cost.layoutCount, cost);
+        assertMetric(step, "attached", cost.attachedCount, cost);
+    }
+
+    private void assertMetric(String step, String metric, int value, Cost cost) {
+        final String key = step + "." + metric;
+        final String budget = budgets.getProperty(key);
+        if (budget == null) {
+            throw new AssertionError("No budget for " + key + " in " + BUDGETS_FILE);
+        }
+        if (value > Integer.parseInt(budget.trim())) {
+            throw new AssertionError(key + " is over budget " + budget + ": " + cost);
+        }
+    }
+
+    private static Properties loadBudgets() {
+        final Properties properties = new Properties();
+        try (InputStream stream = LayoutCostHarness.class.getResourceAsStream(BUDGETS_FILE)) {
+            if (stream == null) {
+                throw new AssertionError(BUDGETS_FILE + " not found");
+            }
+            properties.load(stream);
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+        return properties;
+    }
+
+    static final class Cost {
+
+        final int createCount;
+        final int bindCount;
+        final int measureCount;
+        final int layoutCount;
+        final int attachedCount;
+
+        Cost(int createCount, int bindCount, int measureCount, int layoutCount, int attachedCount) {
+            this.createCount = createCount;
+            this.bindCount = bindCount;
+            this.measureCount = measureCount;
+            this.layoutCount = layoutCount;
+            this.attachedCount = attachedCount;
+        }
+
+        @Override
+        public String toString() {
+            return "create=" + createCount
+                    + ", bind=" + bindCount
+                    + ", measure=" + measureCount
+                    + ", layout=" + layoutCount
+                    + ", attached=" + attachedCount;
+        }
+    }
+}
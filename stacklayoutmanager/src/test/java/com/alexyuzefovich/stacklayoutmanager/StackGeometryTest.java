@@ -0,0 +1,131 @@
+package com.alexyuzefovich.stacklayoutmanager;
+
+import com.alexyuzefovich.stacklayoutmanager.geometry.StackGeometry;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class StackGeometryTest {
+
+    private static final int ITEM_HEIGHT = 1000;
+
+    private StackGeometry geometry;
+
+    @Before
+    public void setUp() {
+        geometry = new StackGeometry();
+        geometry.setItemCount(10);
+        geometry.setItemHeight(ITEM_HEIGHT);
+    }
+
+    @Test
+    public void initialStackLaysOutThreeItems() {
+        assertEquals(0, geometry.getFirstPosition());
+        assertEquals(2, geometry.getLastPosition());
+        assertEquals(0, geometry.getItemTop(0));
+        assertEquals(ITEM_HEIGHT, geometry.getItemTop(1));
+        assertEquals(2 * ITEM_HEIGHT, geometry.getItemTop(2));
+    }
+
+    @Test
+    public void scrollMovesSecondItemAndCoversFirstOne() {
+        assertEquals(250, geometry.scrollBy(250));
+        assertEquals(0, geometry.getItemTop(0));
+        assertEquals(ITEM_HEIGHT - 250, geometry.getItemTop(1));
+        assertEquals(0.25f, geometry.getCoverProgress(0), 0f);
+        assertEquals(0f, geometry.getCoverProgress(1), 0f);
+    }
+
+    @Test
+    public void secondItemReachingTopBecomesFirst() {
+        geometry.scrollBy(ITEM_HEIGHT - 1);
+        geometry.scrollBy(100);
+        assertEquals(1, geometry.getFirstPosition());
+        assertEquals(99, geometry.getScrollOffset());
+        assertEquals(3, geometry.getLastPosition());
+    }
+
+    @Test
+    public void largeDyPassesSeveralItemsInOneCall() {
+        assertEquals(3 * ITEM_HEIGHT + 250, geometry.scrollBy(3 * ITEM_HEIGHT + 250));
+        assertEquals(3, geometry.getFirstPosition());
+        assertEquals(250, geometry.getScrollOffset());
+
+        assertEquals(-2 * ITEM_HEIGHT - 500, geometry.scrollBy(-2 * ITEM_HEIGHT - 500));
+        assertEquals(0, geometry.getFirstPosition());
+        assertEquals(750, geometry.getScrollOffset());
+    }
+
+    @Test
+    public void largeDyIsConsumedPartiallyAtTheEnd() {
+        geometry.setPosition(7, 0);
+        assertEquals(2 * ITEM_HEIGHT, geometry.scrollBy(100 * ITEM_HEIGHT));
+        assertEquals(9, geometry.getFirstPosition());
+        assertEquals(0, geometry.getScrollOffset());
+
+        assertEquals(-9 * ITEM_HEIGHT, geometry.scrollBy(-100 * ITEM_HEIGHT));
+        assertEquals(0, geometry.getFirstPosition());
+    }
+
+    @Test
+    public void scrollBackUncoversPreviousItem() {
+        geometry.setPosition(5, 0);
+        assertEquals(-100, geometry.scrollBy(-100));
+        assertEquals(4, geometry.getFirstPosition());
+        assertEquals(ITEM_HEIGHT - 100, geometry.getScrollOffset());
+        assertEquals(100, geometry.getItemTop(5));
+        assertEquals(1f, geometry.getCoverProgress(3), 0f);
+    }
+
+    @Test
+    public void scrollIsClampedAtBothEnds() {
+        assertEquals(0, geometry.scrollBy(-100));
+        assertEquals(0, geometry.getScrollOffset());
+
+        geometry.setPosition(9, 0);
+        assertEquals(0, geometry.scrollBy(100));
+        assertEquals(9, geometry.getFirstPosition());
+        assertEquals(9, geometry.getLastPosition());
+    }
+
+    @Test
+    public void positionIsClampedToItemCount() {
+        geometry.setPosition(7, 500);
+        geometry.setItemCount(5);
+        geometry.clampPosition();
+        assertEquals(4, geometry.getFirstPosition());
+        assertEquals(0, geometry.getScrollOffset());
+    }
+
+    @Test
+    public void itemHeightChangeKeepsCoverProgress() {
+        geometry.scrollBy(500);
+        geometry.setItemHeight(2 * ITEM_HEIGHT);
+        assertEquals(ITEM_HEIGHT, geometry.getScrollOffset());
+        assertEquals(0.5f, geometry.getCoverProgress(0), 0f);
+    }
+
+    @Test
+    public void stackDepthDefinesLaidOutRange() {
+        geometry.setItemsAhead(4);
+        geometry.setItemsBehind(2);
+        geometry.setPosition(5, 0);
+        assertEquals(3, geometry.getStartPosition());
+        assertEquals(9, geometry.getLastPosition());
+        assertEquals(0, geometry.getItemTop(3));
+        assertEquals(1f, geometry.getCoverProgress(3), 0f);
+
+        geometry.setPosition(1, 0);
+        assertEquals(0, geometry.getStartPosition());
+        assertEquals(5, geometry.getLastPosition());
+    }
+
+    @Test
+    public void secondItemIsAlwaysLaidOut() {
+        geometry.setItemsAhead(0);
+        assertEquals(1, geometry.getItemsAhead());
+        assertEquals(1, geometry.getLastPosition());
+    }
+}
@@ -0,0 +1,258 @@
+package com.alexyuzefovich.stacklayoutmanager;
+
+import android.view.View;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Layout cost regression suite: every test runs a scripted step and fails when counts of created
+ * and bound view holders, measures, layouts or attached children exceed budgets from
+ * layout_cost_budgets.properties.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class StackLayoutCostTest {
+
+    private static final int ITEM_COUNT = 100;
+    private static final int DRAG_STEP = 40;
+
+    private LayoutCostHarness harness;
+
+    @Before
+    public void setUp() {
+        harness = new LayoutCostHarness(ITEM_COUNT);
+    }
+
+    @Test
+    public void initialLayout() {
+        // layout was already done by activity setup, so adapter is set again with empty pool
+        harness.recyclerView.setAdapter(null);
+        harness.idle();
+        final LayoutCostHarness.Cost cost = harness.run(new Runnable() {
+            @Override
+            public void run() {
+                harness.recyclerView.setAdapter(harness.adapter);
+            }
+        });
+        check("initialLayout", cost);
+    }
+
+    @Test
+    public void slowDragWithinItem() {
+        final LayoutCostHarness.Cost cost = harness.run(new Runnable() {
+            @Override
+            public void run() {
+                harness.drag(10 * DRAG_STEP, DRAG_STEP);
+            }
+        });
+        check("slowDrag", cost);
+    }
+
+    @Test
+    public void dragOverItem() {
+        final LayoutCostHarness.Cost cost = harness.run(new Runnable() {
+            @Override
+            public void run() {
+                harness.drag(LayoutCostHarness.HEIGHT, DRAG_STEP);
+            }
+        });
+        check("dragOverItem", cost);
+        assertEquals(1, harness.getFirstVisiblePosition());
+    }
+
+    @Test
+    public void dragBackOverItem() {
+        harness.drag(LayoutCostHarness.HEIGHT, DRAG_STEP);
+        final LayoutCostHarness.Cost cost = harness.run(new Runnable() {
+            @Override
+            public void run() {
+                harness.drag(-LayoutCostHarness.HEIGHT, DRAG_STEP);
+            }
+        });
+        check("dragBackOverItem", cost);
+        assertEquals(0, harness.getFirstVisiblePosition());
+    }
+
+    @Test
+    public void fling() {
+        final LayoutCostHarness.Cost cost = harness.run(new Runnable() {
+            @Override
+            public void run() {
+                harness.fling(400, 120);
+            }
+        });
+        check("fling", cost);
+    }
+
+    @Test
+    public void multiItemFling() {
+        harness.snapHelper.setMultiItemFlingEnabled(true);
+        final LayoutCostHarness.Cost cost = harness.run(new Runnable() {
+            @Override
+            public void run() {
+                harness.snapHelper.onFling(0, 20000);
+            }
+        });
+        check("multiItemFling", cost);
+        final View secondView = harness.layoutManager.getChildAt(1);
+        assertTrue(harness.getFirstVisiblePosition() > 1);
+        assertEquals(LayoutCostHarness.HEIGHT, secondView.getTop());
+    }
+
+    @Test
+    public void scrollByManyItems() {
+        final LayoutCostHarness.Cost cost = harness.run(new Runnable() {
+            @Override
+            public void run() {
+                harness.recyclerView.scrollBy(0, 10 * LayoutCostHarness.HEIGHT + 500);
+            }
+        });
+        check("scrollByManyItems", cost);
+        assertEquals(10, harness.getFirstVisiblePosition());
+    }
+
+    @Test
+    public void snapBackAfterPartialScroll() {
+        harness.drag(600, DRAG_STEP);
+        final LayoutCostHarness.Cost cost = harness.run(new Runnable() {
+            @Override
+            public void run() {
+                // settling scroll makes SmartPagerSnapHelper snap when scroll state becomes idle
+                harness.recyclerView.smoothScrollBy(0, 1);
+            }
+        });
+        check("snap", cost);
+        final View secondView = harness.layoutManager.getChildAt(1);
+        assertEquals(0, harness.getFirstVisiblePosition());
+        assertEquals(LayoutCostHarness.HEIGHT, secondView.getTop());
+    }
+
+    @Test
+    public void childRequestsLayout() {
+        final View secondView = harness.layoutManager.getChildAt(1);
+        final LayoutCostHarness.Cost cost = harness.run(new Runnable() {
+            @Override
+            public void run() {
+                // ex. image was loaded into the item
+                secondView.requestLayout();
+            }
+        });
+        check("childRequestsLayout", cost);
+        assertEquals(LayoutCostHarness.HEIGHT, secondView.getTop());
+    }
+
+    @Test
+    public void jump() {
+        final LayoutCostHarness.Cost cost = harness.run(new Runnable() {
+            @Override
+            public void run() {
+                harness.recyclerView.scrollToPosition(60);
+            }
+        });
+        check("jump", cost);
+        assertEquals(60, harness.getFirstVisiblePosition());
+    }
+
+    @Test
+    public void jumpWithWarmPool() {
+        harness.run(new Runnable() {
+            @Override
+            public void run() {
+                harness.recyclerView.scrollToPosition(60);
+            }
+        });
+        final LayoutCostHarness.Cost cost = harness.run(new Runnable() {
+            @Override
+            public void run() {
+                harness.recyclerView.scrollToPosition(30);
+            }
+        });
+        check("jumpWarm", cost);
+        assertEquals(30, harness.getFirstVisiblePosition());
+    }
+
+    @Test
+    public void smoothScrollToNearPosition() {
+        final LayoutCostHarness.Cost cost = harness.run(new Runnable() {
+            @Override
+            public void run() {
+                harness.recyclerView.smoothScrollToPosition(3);
+            }
+        });
+        check("smoothScroll", cost);
+    }
+
+    @Test
+    public void smoothScrollToDistantPositionWithJump() {
+        harness.layoutManager.setSmoothScrollJumpThreshold(5);
+        final LayoutCostHarness.Cost cost = harness.run(new Runnable() {
+            @Override
+            public void run() {
+                harness.recyclerView.smoothScrollToPosition(80);
+            }
+        });
+        check("smoothScrollFar", cost);
+        assertEquals(80, harness.getFirstVisiblePosition());
+    }
+
+    @Test
+    public void insertAboveStack() {
+        jumpTo(10);
+        final LayoutCostHarness.Cost cost = harness.run(new Runnable() {
+            @Override
+            public void run() {
+                harness.adapter.setItemCount(ITEM_COUNT + 1);
+                harness.adapter.notifyItemInserted(0);
+            }
+        });
+        check("insertAbove", cost);
+        assertEquals(11, harness.getFirstVisiblePosition());
+    }
+
+    @Test
+    public void updateVisibleItem() {
+        jumpTo(10);
+        final LayoutCostHarness.Cost cost = harness.run(new Runnable() {
+            @Override
+            public void run() {
+                harness.adapter.notifyItemChanged(11);
+            }
+        });
+        check("updateVisible", cost);
+        assertEquals(10, harness.getFirstVisiblePosition());
+    }
+
+    @Test
+    public void removeFirstVisibleItem() {
+        jumpTo(10);
+        final LayoutCostHarness.Cost cost = harness.run(new Runnable() {
+            @Override
+            public void run() {
+                harness.adapter.setItemCount(ITEM_COUNT - 1);
+                harness.adapter.notifyItemRemoved(10);
+            }
+        });
+        check("removeVisible", cost);
+        assertEquals(10, harness.getFirstVisiblePosition());
+    }
+
+    private void jumpTo(final int position) {
+        harness.run(new Runnable() {
+            @Override
+            public void run() {
+                harness.recyclerView.scrollToPosition(position);
+            }
+        });
+    }
+
+    private void check(String step, LayoutCostHarness.Cost cost) {
+        harness.assertWithinBudget(step, cost);
+    }
+}
@@ -0,0 +1,148 @@
+package com.alexyuzefovich.stacklayoutmanager;
+
+import android.view.View;
+
+import androidx.recyclerview.widget.RecyclerView;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Adapter updates above, at and inside the stack (items 10, 11 and 12 are laid out):
+ * off-screen updates only shift the first position, only new items of the stack are bound.
+ * Item animator is removed, so animations don't keep additional view holders.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class StackLayoutManagerAdapterUpdatesTest {
+
+    private static final int ITEM_COUNT = 100;
+    private static final int FIRST_POSITION = 10;
+
+    private StackLayoutManager layoutManager;
+    private CountingAdapter adapter;
+    private RecyclerView recyclerView;
+
+    @Before
+    public void setUp() {
+        layoutManager = new StackLayoutManager();
+        adapter = new CountingAdapter(ITEM_COUNT);
+        recyclerView = TestRecyclerViews.create(layoutManager, adapter);
+        recyclerView.setItemAnimator(null);
+        recyclerView.scrollToPosition(FIRST_POSITION);
+        TestRecyclerViews.layout(recyclerView);
+        adapter.resetCounters();
+    }
+
+    @Test
+    public void insertAboveStackShiftsPosition() {
+        insert(3);
+        assertStack(FIRST_POSITION + 1, 0);
+    }
+
+    @Test
+    public void insertAtFirstPositionShiftsPosition() {
+        insert(FIRST_POSITION);
+        assertStack(FIRST_POSITION + 1, 0);
+    }
+
+    @Test
+    public void insertInsideStackBindsInsertedItem() {
+        insert(FIRST_POSITION + 1);
+        assertStack(FIRST_POSITION, 1);
+    }
+
+    @Test
+    public void removeAboveStackShiftsPosition() {
+        remove(3);
+        assertStack(FIRST_POSITION - 1, 0);
+    }
+
+    @Test
+    public void removeAtFirstPositionBindsNewLastItem() {
+        remove(FIRST_POSITION);
+        assertStack(FIRST_POSITION, 1);
+    }
+
+    @Test
+    public void removeInsideStackBindsNewLastItem() {
+        remove(FIRST_POSITION + 1);
+        assertStack(FIRST_POSITION, 1);
+    }
+
+    @Test
+    public void moveAboveStackKeepsPosition() {
+        move(2, 5);
+        assertStack(FIRST_POSITION, 0);
+    }
+
+    @Test
+    public void moveOverStackShiftsPosition() {
+        move(2, 50);
+        assertStack(FIRST_POSITION - 1, 0);
+
+        move(60, 2);
+        assertStack(FIRST_POSITION, 0);
+    }
+
+    @Test
+    public void moveOfFirstItemIsFollowed() {
+        move(FIRST_POSITION, 50);
+        // the moved item stays on the top, items after it are new
+        assertStack(50, 2);
+    }
+
+    @Test
+    public void moveOutOfStackBindsNewLastItem() {
+        move(FIRST_POSITION + 1, 50);
+        assertStack(FIRST_POSITION, 1);
+    }
+
+    @Test
+    public void moveIntoStackBindsMovedItem() {
+        move(50, FIRST_POSITION + 1);
+        assertStack(FIRST_POSITION, 1);
+    }
+
+    @Test
+    public void updatesBeforeFirstLayoutKeepFirstPosition() {
+        final StackLayoutManager layoutManager = new StackLayoutManager();
+        final CountingAdapter adapter = new CountingAdapter(0);
+        final RecyclerView recyclerView = TestRecyclerViews.create(layoutManager, adapter);
+        adapter.setItemCount(5);
+        adapter.notifyItemRangeInserted(0, 5);
+        TestRecyclerViews.layout(recyclerView);
+        assertEquals(0, layoutManager.getPosition(layoutManager.getChildAt(0)));
+    }
+
+    private void insert(int position) {
+        adapter.setItemCount(adapter.getItemCount() + 1);
+        adapter.notifyItemInserted(position);
+        TestRecyclerViews.layout(recyclerView);
+    }
+
+    private void remove(int position) {
+        adapter.setItemCount(adapter.getItemCount() - 1);
+        adapter.notifyItemRemoved(position);
+        TestRecyclerViews.layout(recyclerView);
+    }
+
+    private void move(int from, int to) {
+        adapter.notifyItemMoved(from, to);
+        TestRecyclerViews.layout(recyclerView);
+    }
+
+    private void assertStack(int firstPosition, int bindCount) {
+        assertEquals(3, layoutManager.getChildCount());
+        for (int i = 0; i < 3; i++) {
+            final View child = layoutManager.getChildAt(i);
+            assertEquals(firstPosition + i, layoutManager.getPosition(child));
+        }
+        assertEquals(bindCount, adapter.bindCount);
+    }
+}
@@ -0,0 +1,79 @@
+package com.alexyuzefovich.stacklayoutmanager;
+
+import android.graphics.PointF;
+
+import androidx.recyclerview.widget.RecyclerView;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class StackLayoutManagerAllocationTest {
+
+    private static final int ITEM_COUNT = 50;
+    private static final int STEP = 37;
+    private static final int STEPS = 400;
+
+    private com.sun.management.ThreadMXBean threadBean;
+
+    private StackLayoutManager layoutManager;
+    private RecyclerView recyclerView;
+
+    @Before
+    public void setUp() {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+        threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threadBean.isThreadAllocatedMemorySupported());
+        threadBean.setThreadAllocatedMemoryEnabled(true);
+
+        layoutManager = new StackLayoutManager();
+        layoutManager.setScaleFactor(0.5f);
+        recyclerView = TestRecyclerViews.create(layoutManager, new CountingAdapter(ITEM_COUNT));
+    }
+
+    @Test
+    public void scriptedScrollDoesNotAllocate() {
+        // warm up: walk the whole stack so view holders are created and code paths are compiled
+        scroll(STEPS);
+        scroll(-STEPS);
+        scroll(STEPS);
+        scroll(-STEPS);
+
+        final long before = allocatedBytes();
+        scroll(STEPS);
+        scroll(-STEPS);
+        final long allocated = allocatedBytes() - before;
+
+        // less than a byte per step: any per-frame object (Rect, PointF, scroller) would exceed it,
+        // one-off allocations of the runtime are tolerated
+        assertTrue("Scroll allocated " + allocated + " bytes", allocated < 2 * STEPS);
+    }
+
+    @Test
+    public void scrollVectorIsReused() {
+        final PointF forward = layoutManager.computeScrollVectorForPosition(ITEM_COUNT - 1);
+        final PointF backward = layoutManager.computeScrollVectorForPosition(0);
+        assertSame(forward, backward);
+    }
+
+    private void scroll(int steps) {
+        final int dy = steps > 0 ? STEP : -STEP;
+        for (int i = 0; i < Math.abs(steps); i++) {
+            recyclerView.scrollBy(0, dy);
+        }
+    }
+
+    private long allocatedBytes() {
+        return threadBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
@@ -0,0 +1,133 @@
+package com.alexyuzefovich.stacklayoutmanager;
+
+import android.content.Context;
+import android.graphics.Rect;
+import android.view.View;
+import android.view.ViewGroup;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Checks clip bounds of items in item coordinates. Items are scaled around their centers
+ * (scale factor 0.5), so the covered top item keeps the part above the visual top of the next item.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class StackLayoutManagerClipTest {
+
+    private static final int ITEM_COUNT = 100;
+    private static final int WIDTH = TestRecyclerViews.WIDTH;
+    private static final int HEIGHT = TestRecyclerViews.HEIGHT;
+    private static final int PADDING_BOTTOM = 240;
+
+    private StackLayoutManager layoutManager;
+    private RecyclerView recyclerView;
+
+    @Before
+    public void setUp() {
+        layoutManager = new StackLayoutManager();
+        layoutManager.setScaleFactor(0.5f);
+        layoutManager.setClipCoveredItems(true);
+        recyclerView = TestRecyclerViews.create(layoutManager, new CenterPivotAdapter());
+    }
+
+    @Test
+    public void coveredItemIsClippedByNextItem() {
+        recyclerView.scrollBy(0, 480);
+        // top item has scale 0.875, the next item is at 1440
+        assertClip(0, new Rect(0, 0, WIDTH, 1509));
+        // the next item is clipped by RecyclerView bottom
+        assertClip(1, new Rect(0, 0, WIDTH, 480));
+    }
+
+    @Test
+    public void offScreenItemIsNotDrawn() {
+        recyclerView.scrollBy(0, 480);
+        assertClip(2, new Rect());
+    }
+
+    @Test
+    public void fullyCoveredItemIsNotDrawn() {
+        layoutManager.setItemsBehind(1);
+        recyclerView.scrollToPosition(5);
+        TestRecyclerViews.layout(recyclerView);
+        assertEquals(4, layoutManager.getPosition(layoutManager.getChildAt(0)));
+        // item behind the top one is fully covered
+        assertClip(0, new Rect());
+        assertClip(1, new Rect(0, 0, WIDTH, HEIGHT));
+    }
+
+    @Test
+    public void itemPeeksFromBottomPaddingWithoutClipToPadding() {
+        recyclerView.setClipToPadding(false);
+        recyclerView.setPadding(0, 0, 0, PADDING_BOTTOM);
+        TestRecyclerViews.layout(recyclerView);
+        final int itemHeight = HEIGHT - PADDING_BOTTOM;
+        assertClip(0, new Rect(0, 0, WIDTH, itemHeight));
+        // top of the next item is visible in the padding area
+        assertClip(1, new Rect(0, 0, WIDTH, PADDING_BOTTOM));
+    }
+
+    @Test
+    public void paddingAreaIsClippedWithClipToPadding() {
+        recyclerView.setPadding(0, 0, 0, PADDING_BOTTOM);
+        TestRecyclerViews.layout(recyclerView);
+        assertClip(1, new Rect());
+    }
+
+    @Test
+    public void disablingClearsClipBounds() {
+        recyclerView.scrollBy(0, 480);
+        layoutManager.setClipCoveredItems(false);
+        for (int i = 0; i < layoutManager.getChildCount(); i++) {
+            assertNull(layoutManager.getChildAt(i).getClipBounds());
+        }
+    }
+
+    private void assertClip(int childIndex, Rect expected) {
+        assertEquals(expected, layoutManager.getChildAt(childIndex).getClipBounds());
+    }
+
+    private static class CenterPivotAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
+
+        @NonNull
+        @Override
+        public RecyclerView.ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+            return new RecyclerView.ViewHolder(new CenterPivotView(parent.getContext())) {};
+        }
+
+        @Override
+        public void onBindViewHolder(@NonNull RecyclerView.ViewHolder holder, int position) {
+        }
+
+        @Override
+        public int getItemCount() {
+            return ITEM_COUNT;
+        }
+    }
+
+    /**Sets pivot explicitly, so the same pivot is used by scaling and clip calculation**/
+    private static class CenterPivotView extends View {
+
+        CenterPivotView(Context context) {
+            super(context);
+        }
+
+        @Override
+        protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+            super.onSizeChanged(w, h, oldw, oldh);
+            setPivotX(w / 2f);
+            setPivotY(h / 2f);
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.alexyuzefovich.stacklayoutmanager;
+
+import android.graphics.Rect;
+import android.view.View;
+import android.view.ViewGroup;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class StackLayoutManagerElevationTest {
+
+    private static final int ITEM_COUNT = 100;
+    private static final float ELEVATION = 8f;
+
+    private StackLayoutManager layoutManager;
+    private ElevatedAdapter adapter;
+    private RecyclerView recyclerView;
+    private final List<RecycledView> recycledViews = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        layoutManager = new StackLayoutManager();
+        layoutManager.setItemsBehind(1);
+        layoutManager.setItemsAhead(3);
+        layoutManager.setReduceCoveredElevation(true);
+        adapter = new ElevatedAdapter();
+        recyclerView = TestRecyclerViews.create(layoutManager, adapter);
+        recyclerView.scrollToPosition(5);
+        TestRecyclerViews.layout(recyclerView);
+    }
+
+    @Test
+    public void onlyTopItemsKeepElevation() {
+        assertElevations(0f, ELEVATION, ELEVATION, 0f, 0f);
+    }
+
+    @Test
+    public void elevationFollowsTopItems() {
+        final View recycledView = layoutManager.getChildAt(0);
+        recyclerView.scrollBy(0, TestRecyclerViews.HEIGHT + 100);
+        assertEquals(6, layoutManager.getPosition(layoutManager.getChildAt(1)));
+        assertElevations(0f, ELEVATION, ELEVATION, 0f, 0f);
+        // view left the stack with original elevation
+        assertEquals(ELEVATION, recycledView.getElevation(), 0f);
+    }
+
+    @Test
+    public void invalidViewsAreRecycledWithOriginalState() {
+        final List<View> children = prepareItemState();
+
+        adapter.notifyDataSetChanged();
+        TestRecyclerViews.layout(recyclerView);
+        // all children went through the pool (with views from view cache) and were attached again
+        assertRecycledWithOriginalState(children);
+    }
+
+    @Test
+    public void removedViewIsRecycledWithOriginalElevation() {
+        recyclerView.setItemAnimator(null);
+        final View removedView = layoutManager.getChildAt(3);
+        assertEquals(0f, removedView.getElevation(), 0f);
+        recordRecycledViews();
+
+        adapter.itemCount--;
+        adapter.notifyItemRemoved(7);
+        TestRecyclerViews.layout(recyclerView);
+        // removed view is left in scrap and recycled by RecyclerView after layout pass
+        assertEquals(1, recycledViews.size());
+        assertEquals(removedView, recycledViews.get(0).view);
+        assertEquals(ELEVATION, recycledViews.get(0).elevation, 0f);
+        assertElevations(0f, ELEVATION, ELEVATION, 0f, 0f);
+    }
+
+    @Test
+    public void swappedAdapterGetsViewsWithOriginalState() {
+        final List<View> children = prepareItemState();
+
+        recyclerView.swapAdapter(new ElevatedAdapter(), true);
+        TestRecyclerViews.layout(recyclerView);
+        assertRecycledWithOriginalState(children);
+    }
+
+    @Test
+    public void replacedLayoutManagerGetsViewsWithOriginalState() {
+        final List<View> children = prepareItemState();
+
+        recyclerView.setLayoutManager(new StackLayoutManager());
+        TestRecyclerViews.layout(recyclerView);
+        assertRecycledWithOriginalState(children);
+    }
+
+    @Test
+    public void disablingRestoresElevation() {
+        layoutManager.setReduceCoveredElevation(false);
+        assertElevations(ELEVATION, ELEVATION, ELEVATION, ELEVATION, ELEVATION);
+    }
+
+    /**Sets hardware layer and clip bounds in addition to reduced elevation, starts recording
+     * of recycled views and returns current children**/
+    private List<View> prepareItemState() {
+        layoutManager.setClipCoveredItems(true);
+        layoutManager.setHardwareLayersEnabled(true);
+        layoutManager.onScrollStateChanged(RecyclerView.SCROLL_STATE_DRAGGING);
+        assertEquals(View.LAYER_TYPE_HARDWARE, layoutManager.getChildAt(1).getLayerType());
+        final List<View> children = new ArrayList<>();
+        for (int i = 0; i < layoutManager.getChildCount(); i++) {
+            children.add(layoutManager.getChildAt(i));
+        }
+        recordRecycledViews();
+        return children;
+    }
+
+    private void assertRecycledWithOriginalState(List<View> children) {
+        final List<View> views = new ArrayList<>();
+        for (RecycledView recycledView : recycledViews) {
+            views.add(recycledView.view);
+            assertEquals(ELEVATION, recycledView.elevation, 0f);
+            assertEquals(View.LAYER_TYPE_NONE, recycledView.layerType);
+            assertNull(recycledView.clipBounds);
+        }
+        assertTrue(views.containsAll(children));
+    }
+
+    /**Records views with their state at the moment of recycling**/
+    private void recordRecycledViews() {
+        recyclerView.setRecyclerListener(new RecyclerView.RecyclerListener() {
+            @Override
+            public void onViewRecycled(@NonNull RecyclerView.ViewHolder holder) {
+                recycledViews.add(new RecycledView(holder.itemView));
+            }
+        });
+    }
+
+    private void assertElevations(float... elevations) {
+        assertEquals(elevations.length, layoutManager.getChildCount());
+        for (int i = 0; i < elevations.length; i++) {
+            assertEquals(elevations[i], layoutManager.getChildAt(i).getElevation(), 0f);
+        }
+    }
+
+    private static class RecycledView {
+
+        final View view;
+        final float elevation;
+        final int layerType;
+        final Rect clipBounds;
+
+        RecycledView(View view) {
+            this.view = view;
+            this.elevation = view.getElevation();
+            this.layerType = view.getLayerType();
+            this.clipBounds = view.getClipBounds();
+        }
+    }
+
+    private static class ElevatedAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
+
+        int itemCount = ITEM_COUNT;
+
+        @NonNull
+        @Override
+        public RecyclerView.ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+            final View view = new View(parent.getContext());
+            view.setElevation(ELEVATION);
+            return new RecyclerView.ViewHolder(view) {};
+        }
+
+        @Override
+        public void onBindViewHolder(@NonNull RecyclerView.ViewHolder holder, int position) {
+        }
+
+        @Override
+        public int getItemCount() {
+            return itemCount;
+        }
+    }
+}
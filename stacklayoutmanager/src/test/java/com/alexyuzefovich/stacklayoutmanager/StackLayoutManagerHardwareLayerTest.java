@@ -0,0 +1,72 @@
+package com.alexyuzefovich.stacklayoutmanager;
+
+import android.view.View;
+
+import androidx.recyclerview.widget.RecyclerView;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class StackLayoutManagerHardwareLayerTest {
+
+    private static final int ITEM_COUNT = 100;
+
+    private StackLayoutManager layoutManager;
+    private RecyclerView recyclerView;
+
+    @Before
+    public void setUp() {
+        layoutManager = new StackLayoutManager();
+        layoutManager.setHardwareLayersEnabled(true);
+        recyclerView = TestRecyclerViews.create(layoutManager, new CountingAdapter(ITEM_COUNT));
+    }
+
+    @Test
+    public void topItemHasHardwareLayerOnlyWhileScrolling() {
+        assertLayerTypes(View.LAYER_TYPE_NONE, View.LAYER_TYPE_NONE, View.LAYER_TYPE_NONE);
+
+        layoutManager.onScrollStateChanged(RecyclerView.SCROLL_STATE_DRAGGING);
+        assertLayerTypes(View.LAYER_TYPE_HARDWARE, View.LAYER_TYPE_NONE, View.LAYER_TYPE_NONE);
+
+        layoutManager.onScrollStateChanged(RecyclerView.SCROLL_STATE_IDLE);
+        assertLayerTypes(View.LAYER_TYPE_NONE, View.LAYER_TYPE_NONE, View.LAYER_TYPE_NONE);
+    }
+
+    @Test
+    public void layerIsMovedToTheNewTopItem() {
+        layoutManager.onScrollStateChanged(RecyclerView.SCROLL_STATE_DRAGGING);
+        final View oldTop = layoutManager.getChildAt(0);
+        recyclerView.scrollBy(0, TestRecyclerViews.HEIGHT + 100);
+        assertEquals(View.LAYER_TYPE_NONE, oldTop.getLayerType());
+        assertLayerTypes(View.LAYER_TYPE_HARDWARE, View.LAYER_TYPE_NONE, View.LAYER_TYPE_NONE);
+    }
+
+    @Test
+    public void layerTypeSetByAppIsKept() {
+        layoutManager.getChildAt(0).setLayerType(View.LAYER_TYPE_SOFTWARE, null);
+        layoutManager.onScrollStateChanged(RecyclerView.SCROLL_STATE_SETTLING);
+        layoutManager.onScrollStateChanged(RecyclerView.SCROLL_STATE_IDLE);
+        assertEquals(View.LAYER_TYPE_SOFTWARE, layoutManager.getChildAt(0).getLayerType());
+    }
+
+    @Test
+    public void disablingRemovesLayer() {
+        layoutManager.onScrollStateChanged(RecyclerView.SCROLL_STATE_DRAGGING);
+        layoutManager.setHardwareLayersEnabled(false);
+        assertLayerTypes(View.LAYER_TYPE_NONE, View.LAYER_TYPE_NONE, View.LAYER_TYPE_NONE);
+    }
+
+    private void assertLayerTypes(int... layerTypes) {
+        assertEquals(layerTypes.length, layoutManager.getChildCount());
+        for (int i = 0; i < layerTypes.length; i++) {
+            assertEquals(layerTypes[i], layoutManager.getChildAt(i).getLayerType());
+        }
+    }
+}
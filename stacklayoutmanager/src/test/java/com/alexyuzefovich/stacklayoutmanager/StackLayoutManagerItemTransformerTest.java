@@ -0,0 +1,99 @@
+package com.alexyuzefovich.stacklayoutmanager;
+
+import android.view.View;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.alexyuzefovich.stacklayoutmanager.transformer.ItemTransformer;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class StackLayoutManagerItemTransformerTest {
+
+    private static final int ITEM_COUNT = 100;
+    private static final int HALF_ITEM = TestRecyclerViews.HEIGHT / 2;
+
+    private StackLayoutManager layoutManager;
+    private RecyclerView recyclerView;
+
+    @Before
+    public void setUp() {
+        layoutManager = new StackLayoutManager();
+        layoutManager.setScaleFactor(0.5f);
+        recyclerView = TestRecyclerViews.create(layoutManager, new CountingAdapter(ITEM_COUNT));
+    }
+
+    @Test
+    public void transformerIsCalledOnlyForChangedProgress() {
+        final CountingTransformer transformer = new CountingTransformer();
+        layoutManager.setItemTransformer(transformer);
+        assertEquals(3, transformer.callCount);
+        transformer.callCount = 0;
+
+        // only the top item is covered by scroll, progress of other items is still 0
+        recyclerView.scrollBy(0, 100);
+        assertEquals(1, transformer.callCount);
+
+        recyclerView.requestLayout();
+        TestRecyclerViews.layout(recyclerView);
+        assertEquals(1, transformer.callCount);
+    }
+
+    @Test
+    public void swappedTransformerResetsPreviousOne() {
+        recyclerView.scrollBy(0, HALF_ITEM);
+        final View top = layoutManager.getChildAt(0);
+        assertEquals(0.75f, top.getScaleX(), 0.001f);
+
+        layoutManager.setItemTransformer(new AlphaTransformer());
+        assertEquals(1f, top.getScaleX(), 0f);
+        assertEquals(1f, top.getScaleY(), 0f);
+        assertEquals(0.5f, top.getAlpha(), 0.001f);
+
+        layoutManager.setItemTransformer(null);
+        assertEquals(0.75f, top.getScaleX(), 0.001f);
+        assertEquals(1f, top.getAlpha(), 0f);
+    }
+
+    @Test
+    public void recycledItemIsResetBySwappedTransformer() {
+        recyclerView.scrollBy(0, HALF_ITEM);
+        final View top = layoutManager.getChildAt(0);
+        // the scaled item leaves the stack with the same progress it will get back
+        recyclerView.scrollBy(0, TestRecyclerViews.HEIGHT);
+        assertEquals(1, layoutManager.getPosition(layoutManager.getChildAt(0)));
+
+        layoutManager.setItemTransformer(new AlphaTransformer());
+        recyclerView.scrollBy(0, -TestRecyclerViews.HEIGHT);
+        assertEquals(top, layoutManager.getChildAt(0));
+        assertEquals(1f, top.getScaleX(), 0f);
+        assertEquals(0.5f, top.getAlpha(), 0.001f);
+    }
+
+    private static class CountingTransformer implements ItemTransformer {
+
+        int callCount;
+
+        @Override
+        public void transformItem(@NonNull View view, float progress) {
+            callCount++;
+        }
+    }
+
+    private static class AlphaTransformer implements ItemTransformer {
+
+        @Override
+        public void transformItem(@NonNull View view, float progress) {
+            view.setAlpha(1 - progress);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.alexyuzefovich.stacklayoutmanager;
+
+import android.graphics.Rect;
+import android.view.View;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Counts onMeasure() calls of items and decoration insets calculations on scroll,
+ * invalidateItemDecorations() and resizing.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class StackLayoutManagerMeasureTest {
+
+    private static final int ITEM_COUNT = 100;
+    private static final int SCROLLED_ITEMS = 10;
+
+    private StackLayoutManager layoutManager;
+    private CountingAdapter adapter;
+    private CountingDecoration decoration;
+    private RecyclerView recyclerView;
+
+    @Before
+    public void setUp() {
+        layoutManager = new StackLayoutManager();
+        adapter = new CountingAdapter(ITEM_COUNT);
+        decoration = new CountingDecoration();
+        recyclerView = TestRecyclerViews.create(layoutManager, adapter);
+        recyclerView.addItemDecoration(decoration);
+        TestRecyclerViews.layout(recyclerView);
+        resetCounters();
+    }
+
+    @Test
+    public void scrollMeasuresOnlyCreatedItems() {
+        scrollItems(SCROLLED_ITEMS);
+        // rebound items have the same size, so View.measure() skips onMeasure()
+        assertEquals(adapter.createCount, adapter.measureCount);
+        assertTrue(decoration.offsetsCount > 0);
+    }
+
+    @Test
+    public void invalidateItemDecorationsMeasuresStack() {
+        decoration.top = 24;
+        recyclerView.invalidateItemDecorations();
+        TestRecyclerViews.layout(recyclerView);
+        assertEquals(3, adapter.measureCount);
+        assertItemHeights(TestRecyclerViews.HEIGHT - 24);
+    }
+
+    @Test
+    public void resizeMeasuresStack() {
+        recyclerView.measure(
+                View.MeasureSpec.makeMeasureSpec(TestRecyclerViews.WIDTH, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(TestRecyclerViews.HEIGHT / 2, View.MeasureSpec.EXACTLY)
+        );
+        recyclerView.layout(0, 0, TestRecyclerViews.WIDTH, TestRecyclerViews.HEIGHT / 2);
+        assertEquals(3, adapter.measureCount);
+        assertItemHeights(TestRecyclerViews.HEIGHT / 2);
+    }
+
+    @Test
+    public void fixedSizeItemsAreNotMeasuredOnScroll() {
+        layoutManager.setHasFixedSizeItems(true);
+        // pool and view cache are filled with items measured after the last layout pass
+        scrollItems(SCROLLED_ITEMS);
+        resetCounters();
+
+        scrollItems(SCROLLED_ITEMS);
+        assertEquals(0, adapter.createCount);
+        assertEquals(0, adapter.measureCount);
+        assertEquals(0, decoration.offsetsCount);
+    }
+
+    @Test
+    public void fixedSizeItemsAreMeasuredAfterInvalidateItemDecorations() {
+        layoutManager.setHasFixedSizeItems(true);
+        scrollItems(SCROLLED_ITEMS);
+        resetCounters();
+
+        decoration.top = 24;
+        recyclerView.invalidateItemDecorations();
+        TestRecyclerViews.layout(recyclerView);
+        assertEquals(3, adapter.measureCount);
+
+        // items from the pool were measured before the layout pass
+        scrollItems(SCROLLED_ITEMS);
+        assertItemHeights(TestRecyclerViews.HEIGHT - 24);
+    }
+
+    private void scrollItems(int count) {
+        for (int i = 0; i < count; i++) {
+            recyclerView.scrollBy(0, TestRecyclerViews.HEIGHT);
+        }
+    }
+
+    private void resetCounters() {
+        adapter.resetCounters();
+        decoration.offsetsCount = 0;
+    }
+
+    private void assertItemHeights(int height) {
+        for (int i = 0; i < layoutManager.getChildCount(); i++) {
+            assertEquals(height, layoutManager.getChildAt(i).getMeasuredHeight());
+        }
+    }
+
+    private static class CountingDecoration extends RecyclerView.ItemDecoration {
+
+        int top;
+
+        int offsetsCount;
+
+        @Override
+        public void getItemOffsets(@NonNull Rect outRect, @NonNull View view,
+                                   @NonNull RecyclerView parent, @NonNull RecyclerView.State state) {
+            offsetsCount++;
+            outRect.set(0, top, 0, 0);
+        }
+    }
+}
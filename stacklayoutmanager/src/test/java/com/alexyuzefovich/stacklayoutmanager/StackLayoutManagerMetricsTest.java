@@ -0,0 +1,136 @@
+package com.alexyuzefovich.stacklayoutmanager;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks metrics reported for every scrollVerticallyBy() and onLayoutChildren() call.
+ * Item animator is removed, so every adapter update is handled by a single layout pass.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class StackLayoutManagerMetricsTest {
+
+    private static final int ITEM_COUNT = 100;
+
+    private StackLayoutManager layoutManager;
+    private CountingAdapter adapter;
+    private RecyclerView recyclerView;
+    private final List<Record> records = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        layoutManager = new StackLayoutManager();
+        adapter = new CountingAdapter(ITEM_COUNT);
+        recyclerView = TestRecyclerViews.create(layoutManager, adapter);
+        recyclerView.setItemAnimator(null);
+        layoutManager.setLayoutMetricsListener(new LayoutMetricsListener() {
+            @Override
+            public void onLayoutMetrics(@NonNull LayoutMetrics metrics) {
+                records.add(new Record(metrics));
+            }
+        });
+        adapter.resetCounters();
+    }
+
+    @Test
+    public void scrollWithinItem() {
+        recyclerView.scrollBy(0, 100);
+        final Record record = getSingleRecord(LayoutMetrics.TYPE_SCROLL);
+        assertRecord(record, 0, 0, 0, 100);
+        assertEquals(0, record.measuredViewCount);
+    }
+
+    @Test
+    public void scrollOverItem() {
+        recyclerView.scrollBy(0, TestRecyclerViews.HEIGHT);
+        final Record record = getSingleRecord(LayoutMetrics.TYPE_SCROLL);
+        // the first item left the stack, the fourth one was attached
+        assertRecord(record, 1, 1, 1, 0);
+        assertEquals(adapter.measureCount, record.measuredViewCount);
+    }
+
+    @Test
+    public void jump() {
+        recyclerView.scrollToPosition(50);
+        TestRecyclerViews.layout(recyclerView);
+        final Record record = getSingleRecord(LayoutMetrics.TYPE_LAYOUT);
+        assertRecord(record, 3, 3, 50, 0);
+        assertEquals(adapter.measureCount, record.measuredViewCount);
+    }
+
+    @Test
+    public void removeInsideStack() {
+        adapter.setItemCount(ITEM_COUNT - 1);
+        adapter.notifyItemRemoved(1);
+        TestRecyclerViews.layout(recyclerView);
+        final Record record = getSingleRecord(LayoutMetrics.TYPE_LAYOUT);
+        // removed view stays in scrap and is recycled after layout pass
+        assertRecord(record, 3, 1, 0, 0);
+        assertEquals(adapter.measureCount, record.measuredViewCount);
+    }
+
+    @Test
+    public void notifyDataSetChanged() {
+        adapter.notifyDataSetChanged();
+        TestRecyclerViews.layout(recyclerView);
+        final Record record = getSingleRecord(LayoutMetrics.TYPE_LAYOUT);
+        // invalid views are recycled on detaching
+        assertRecord(record, 3, 3, 0, 0);
+        assertEquals(3, adapter.bindCount);
+    }
+
+    @Test
+    public void noMetricsWithoutListener() {
+        layoutManager.setLayoutMetricsListener(null);
+        recyclerView.scrollBy(0, TestRecyclerViews.HEIGHT);
+        recyclerView.requestLayout();
+        TestRecyclerViews.layout(recyclerView);
+        assertEquals(0, records.size());
+    }
+
+    private Record getSingleRecord(int type) {
+        assertEquals(1, records.size());
+        final Record record = records.get(0);
+        assertEquals(type, record.type);
+        return record;
+    }
+
+    private static void assertRecord(Record record, int fetched, int recycled, int firstPosition, int scrollOffset) {
+        assertEquals(fetched, record.fetchedViewCount);
+        assertEquals(recycled, record.recycledViewCount);
+        assertEquals(firstPosition, record.firstPosition);
+        assertEquals(scrollOffset, record.scrollOffset);
+    }
+
+    /**Copy of reused LayoutMetrics instance**/
+    private static class Record {
+
+        final int type;
+        final int fetchedViewCount;
+        final int recycledViewCount;
+        final int measuredViewCount;
+        final int firstPosition;
+        final int scrollOffset;
+
+        Record(LayoutMetrics metrics) {
+            type = metrics.getType();
+            fetchedViewCount = metrics.getFetchedViewCount();
+            recycledViewCount = metrics.getRecycledViewCount();
+            measuredViewCount = metrics.getMeasuredViewCount();
+            firstPosition = metrics.getFirstPosition();
+            scrollOffset = metrics.getScrollOffset();
+        }
+    }
+}
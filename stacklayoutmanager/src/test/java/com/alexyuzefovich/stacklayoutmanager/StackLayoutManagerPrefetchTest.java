@@ -0,0 +1,128 @@
+package com.alexyuzefovich.stacklayoutmanager;
+
+import androidx.recyclerview.widget.RecyclerView;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class StackLayoutManagerPrefetchTest {
+
+    private static final int ITEM_COUNT = 10;
+
+    private StackLayoutManager layoutManager;
+    private RecyclerView recyclerView;
+    private RecyclerView.State state;
+    private RecordingRegistry registry;
+
+    @Before
+    public void setUp() {
+        layoutManager = new StackLayoutManager();
+        recyclerView = TestRecyclerViews.create(layoutManager, new CountingAdapter(ITEM_COUNT));
+        state = new RecyclerView.State();
+        registry = new RecordingRegistry();
+    }
+
+    @Test
+    public void initialStackPrefetchesFourthItemOnScrollDown() {
+        layoutManager.collectAdjacentPrefetchPositions(0, 10, state, registry);
+        assertEquals(1, registry.positions.size());
+        assertEquals(3, (int) registry.positions.get(0));
+        assertEquals(TestRecyclerViews.HEIGHT, (int) registry.distances.get(0));
+    }
+
+    @Test
+    public void initialStackPrefetchesNothingOnScrollUp() {
+        layoutManager.collectAdjacentPrefetchPositions(0, -10, state, registry);
+        assertTrue(registry.positions.isEmpty());
+    }
+
+    @Test
+    public void scrolledStackPrefetchesNextAndPreviousItems() {
+        // second view reaches the top, first view is recycled
+        recyclerView.scrollBy(0, TestRecyclerViews.HEIGHT);
+        assertEquals(1, layoutManager.getPosition(layoutManager.getChildAt(0)));
+
+        layoutManager.collectAdjacentPrefetchPositions(0, 10, state, registry);
+        assertEquals(4, (int) registry.positions.get(0));
+        assertEquals(TestRecyclerViews.HEIGHT, (int) registry.distances.get(0));
+
+        registry = new RecordingRegistry();
+        layoutManager.collectAdjacentPrefetchPositions(0, -10, state, registry);
+        assertEquals(0, (int) registry.positions.get(0));
+        assertEquals(0, (int) registry.distances.get(0));
+    }
+
+    @Test
+    public void partiallyScrolledStackPrefetchesWithRemainingDistance() {
+        recyclerView.scrollBy(0, 500);
+
+        layoutManager.collectAdjacentPrefetchPositions(0, 10, state, registry);
+        assertEquals(3, (int) registry.positions.get(0));
+        assertEquals(TestRecyclerViews.HEIGHT - 500, (int) registry.distances.get(0));
+    }
+
+    @Test
+    public void lastItemPrefetchesPreviousItemOnly() {
+        recyclerView.scrollToPosition(ITEM_COUNT - 1);
+        TestRecyclerViews.layout(recyclerView);
+
+        layoutManager.collectAdjacentPrefetchPositions(0, 10, state, registry);
+        assertTrue(registry.positions.isEmpty());
+
+        layoutManager.collectAdjacentPrefetchPositions(0, -10, state, registry);
+        assertEquals(ITEM_COUNT - 2, (int) registry.positions.get(0));
+    }
+
+    @Test
+    public void initialPrefetchCollectsLaidOutItems() {
+        final StackLayoutManager nestedLayoutManager = new StackLayoutManager();
+        nestedLayoutManager.collectInitialPrefetchPositions(ITEM_COUNT, registry);
+        assertEquals(3, registry.positions.size());
+        for (int i = 0; i < 3; i++) {
+            assertEquals(i, (int) registry.positions.get(i));
+            assertEquals(0, (int) registry.distances.get(i));
+        }
+    }
+
+    @Test
+    public void initialPrefetchStartsFromPendingPositionAndStackDepth() {
+        final StackLayoutManager nestedLayoutManager = new StackLayoutManager();
+        nestedLayoutManager.setItemsBehind(1);
+        nestedLayoutManager.scrollToPosition(ITEM_COUNT - 2);
+        nestedLayoutManager.collectInitialPrefetchPositions(ITEM_COUNT, registry);
+        assertEquals(3, registry.positions.size());
+        assertEquals(ITEM_COUNT - 3, (int) registry.positions.get(0));
+        assertEquals(ITEM_COUNT - 1, (int) registry.positions.get(2));
+    }
+
+    @Test
+    public void recommendedPoolSizeCoversStackDepth() {
+        assertEquals(4, layoutManager.getRecommendedRecycledViewPoolSize());
+        layoutManager.setItemsAhead(4);
+        layoutManager.setItemsBehind(1);
+        assertEquals(7, layoutManager.getRecommendedRecycledViewPoolSize());
+    }
+
+    private static class RecordingRegistry implements RecyclerView.LayoutManager.LayoutPrefetchRegistry {
+
+        final List<Integer> positions = new ArrayList<>();
+        final List<Integer> distances = new ArrayList<>();
+
+        @Override
+        public void addPosition(int layoutPosition, int pixelDistance) {
+            positions.add(layoutPosition);
+            distances.add(pixelDistance);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.alexyuzefovich.stacklayoutmanager;
+
+import android.os.Parcel;
+import android.os.Parcelable;
+import android.view.View;
+
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.test.core.app.ApplicationProvider;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class StackLayoutManagerSavedStateTest {
+
+    private static final int ITEM_COUNT = 100;
+
+    @Test
+    public void restoredStackBindsOnlyShownItems() {
+        final StackLayoutManager layoutManager = new StackLayoutManager();
+        final RecyclerView recyclerView = TestRecyclerViews.create(layoutManager, new CountingAdapter(ITEM_COUNT));
+        recyclerView.scrollToPosition(40);
+        TestRecyclerViews.layout(recyclerView);
+        recyclerView.scrollBy(0, 500);
+        final Parcelable state = parcel(layoutManager.onSaveInstanceState());
+
+        final StackLayoutManager restoredLayoutManager = new StackLayoutManager();
+        restoredLayoutManager.onRestoreInstanceState(state);
+        final CountingAdapter adapter = new CountingAdapter(ITEM_COUNT);
+        TestRecyclerViews.create(restoredLayoutManager, adapter);
+
+        assertEquals(3, adapter.bindCount);
+        for (int i = 0; i < 3; i++) {
+            final View child = restoredLayoutManager.getChildAt(i);
+            assertNotNull(child);
+            assertEquals(40 + i, restoredLayoutManager.getPosition(child));
+        }
+        assertEquals(TestRecyclerViews.HEIGHT - 500, restoredLayoutManager.getChildAt(1).getTop());
+    }
+
+    @Test
+    public void scrollOffsetIsScaledToNewItemHeight() {
+        final StackLayoutManager layoutManager = new StackLayoutManager();
+        final RecyclerView recyclerView = TestRecyclerViews.create(layoutManager, new CountingAdapter(ITEM_COUNT));
+        recyclerView.scrollBy(0, TestRecyclerViews.HEIGHT / 2);
+        final Parcelable state = parcel(layoutManager.onSaveInstanceState());
+
+        final StackLayoutManager restoredLayoutManager = new StackLayoutManager();
+        restoredLayoutManager.onRestoreInstanceState(state);
+        final RecyclerView restored = new RecyclerView(ApplicationProvider.getApplicationContext());
+        restored.setLayoutManager(restoredLayoutManager);
+        restored.setAdapter(new CountingAdapter(ITEM_COUNT));
+        restored.measure(
+                View.MeasureSpec.makeMeasureSpec(TestRecyclerViews.HEIGHT, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(TestRecyclerViews.WIDTH, View.MeasureSpec.EXACTLY)
+        );
+        restored.layout(0, 0, TestRecyclerViews.HEIGHT, TestRecyclerViews.WIDTH);
+
+        assertEquals(TestRecyclerViews.WIDTH / 2, restoredLayoutManager.getChildAt(1).getTop());
+    }
+
+    @Test
+    public void scrollToPositionOverridesRestoredState() {
+        final StackLayoutManager layoutManager = new StackLayoutManager();
+        layoutManager.onRestoreInstanceState(new StackLayoutManager.SavedState(40, 0, TestRecyclerViews.HEIGHT));
+        layoutManager.scrollToPosition(10);
+        TestRecyclerViews.create(layoutManager, new CountingAdapter(ITEM_COUNT));
+        assertEquals(10, layoutManager.getPosition(layoutManager.getChildAt(0)));
+    }
+
+    private static Parcelable parcel(Parcelable state) {
+        final Parcel parcel = Parcel.obtain();
+        try {
+            state.writeToParcel(parcel, 0);
+            parcel.setDataPosition(0);
+            return StackLayoutManager.SavedState.CREATOR.createFromParcel(parcel);
+        } finally {
+            parcel.recycle();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.alexyuzefovich.stacklayoutmanager;
+
+import android.view.View;
+
+import androidx.recyclerview.widget.RecyclerView;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class StackLayoutManagerScrollToPositionTest {
+
+    private static final int ITEM_COUNT = 100;
+
+    private StackLayoutManager layoutManager;
+    private CountingAdapter adapter;
+    private RecyclerView recyclerView;
+
+    @Before
+    public void setUp() {
+        layoutManager = new StackLayoutManager();
+        adapter = new CountingAdapter(ITEM_COUNT);
+        recyclerView = TestRecyclerViews.create(layoutManager, adapter);
+    }
+
+    @Test
+    public void jumpWithWarmPoolCreatesNoViewHolders() {
+        // first jump fills view cache and pool
+        jumpTo(20);
+        adapter.resetCounters();
+
+        jumpTo(50);
+        assertEquals(0, adapter.createCount);
+        assertEquals(3, adapter.bindCount);
+
+        jumpTo(80);
+        assertEquals(0, adapter.createCount);
+        assertEquals(6, adapter.bindCount);
+    }
+
+    @Test
+    public void jumpToOverlappingRangeRebindsOnlyNewItems() {
+        jumpTo(20);
+        adapter.resetCounters();
+
+        jumpTo(21);
+        assertEquals(0, adapter.createCount);
+        assertEquals(1, adapter.bindCount);
+    }
+
+    @Test
+    public void jumpLaysOutStackFromTargetPosition() {
+        jumpTo(42);
+        assertEquals(3, layoutManager.getChildCount());
+        for (int i = 0; i < 3; i++) {
+            final View child = layoutManager.getChildAt(i);
+            assertNotNull(child);
+            assertEquals(42 + i, layoutManager.getPosition(child));
+        }
+        final View first = layoutManager.getChildAt(0);
+        assertEquals(0, first.getTop());
+        assertEquals(1f, first.getScaleX(), 0f);
+    }
+
+    private void jumpTo(int position) {
+        recyclerView.scrollToPosition(position);
+        TestRecyclerViews.layout(recyclerView);
+    }
+}
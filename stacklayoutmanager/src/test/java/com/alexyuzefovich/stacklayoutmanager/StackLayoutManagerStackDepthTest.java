@@ -0,0 +1,79 @@
+package com.alexyuzefovich.stacklayoutmanager;
+
+import android.view.View;
+
+import androidx.recyclerview.widget.RecyclerView;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class StackLayoutManagerStackDepthTest {
+
+    private static final int ITEM_COUNT = 100;
+
+    private StackLayoutManager layoutManager;
+    private CountingAdapter adapter;
+    private RecyclerView recyclerView;
+
+    @Before
+    public void setUp() {
+        layoutManager = new StackLayoutManager();
+        adapter = new CountingAdapter(ITEM_COUNT);
+        recyclerView = TestRecyclerViews.create(layoutManager, adapter);
+    }
+
+    @Test
+    public void singleItemAheadKeepsTwoItemsAttached() {
+        layoutManager.setItemsAhead(1);
+        TestRecyclerViews.layout(recyclerView);
+        assertPositions(0, 1);
+
+        recyclerView.scrollBy(0, TestRecyclerViews.HEIGHT);
+        assertPositions(1, 2);
+    }
+
+    @Test
+    public void itemsAheadAreLaidOutBelowBounds() {
+        layoutManager.setItemsAhead(4);
+        TestRecyclerViews.layout(recyclerView);
+        assertPositions(0, 1, 2, 3, 4);
+        final View last = layoutManager.getChildAt(4);
+        assertNotNull(last);
+        assertEquals(4 * TestRecyclerViews.HEIGHT, last.getTop());
+    }
+
+    @Test
+    public void itemsBehindAreKeptUnderFirstItem() {
+        layoutManager.setItemsBehind(2);
+        recyclerView.scrollToPosition(10);
+        TestRecyclerViews.layout(recyclerView);
+        assertPositions(8, 9, 10, 11, 12);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, layoutManager.getChildAt(i).getTop());
+        }
+
+        // scroll back attaches only the new deepest item
+        adapter.resetCounters();
+        recyclerView.scrollBy(0, -TestRecyclerViews.HEIGHT);
+        assertPositions(7, 8, 9, 10, 11);
+        assertEquals(1, adapter.bindCount);
+        assertEquals(TestRecyclerViews.HEIGHT, layoutManager.getChildAt(3).getTop());
+    }
+
+    private void assertPositions(int... positions) {
+        assertEquals(positions.length, layoutManager.getChildCount());
+        for (int i = 0; i < positions.length; i++) {
+            final View child = layoutManager.getChildAt(i);
+            assertNotNull(child);
+            assertEquals(positions[i], layoutManager.getPosition(child));
+        }
+    }
+}
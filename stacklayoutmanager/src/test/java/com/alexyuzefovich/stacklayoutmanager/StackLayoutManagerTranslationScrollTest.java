@@ -0,0 +1,92 @@
+package com.alexyuzefovich.stacklayoutmanager;
+
+import android.view.View;
+
+import androidx.recyclerview.widget.RecyclerView;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class StackLayoutManagerTranslationScrollTest {
+
+    private static final int ITEM_COUNT = 100;
+    private static final int HEIGHT = TestRecyclerViews.HEIGHT;
+
+    private StackLayoutManager layoutManager;
+    private CountingAdapter adapter;
+    private RecyclerView recyclerView;
+
+    @Before
+    public void setUp() {
+        layoutManager = new StackLayoutManager();
+        layoutManager.setTranslationScrollEnabled(true);
+        adapter = new CountingAdapter(ITEM_COUNT);
+        recyclerView = TestRecyclerViews.create(layoutManager, adapter);
+    }
+
+    @Test
+    public void scrollWithinItemChangesTranslationOnly() {
+        startDragging();
+        recyclerView.scrollBy(0, 300);
+        recyclerView.scrollBy(0, 200);
+        final View second = layoutManager.getChildAt(1);
+        assertEquals(HEIGHT, second.getTop());
+        assertEquals(-500f, second.getTranslationY(), 0f);
+        final View third = layoutManager.getChildAt(2);
+        assertEquals(2 * HEIGHT, third.getTop());
+        assertEquals(-500f, third.getTranslationY(), 0f);
+    }
+
+    @Test
+    public void scrollInIdleStateCommitsLayoutPositions() {
+        recyclerView.scrollBy(0, 500);
+        final View second = layoutManager.getChildAt(1);
+        assertEquals(HEIGHT - 500, second.getTop());
+        assertEquals(0f, second.getTranslationY(), 0f);
+    }
+
+    @Test
+    public void idleScrollStateCommitsLayoutPositions() {
+        startDragging();
+        recyclerView.scrollBy(0, 500);
+        layoutManager.onScrollStateChanged(RecyclerView.SCROLL_STATE_IDLE);
+        final View second = layoutManager.getChildAt(1);
+        assertEquals(HEIGHT - 500, second.getTop());
+        assertEquals(0f, second.getTranslationY(), 0f);
+    }
+
+    @Test
+    public void passingToNextItemCommitsLayoutPositions() {
+        startDragging();
+        recyclerView.scrollBy(0, 500);
+        recyclerView.scrollBy(0, HEIGHT - 400);
+        for (int i = 0; i < layoutManager.getChildCount(); i++) {
+            final View child = layoutManager.getChildAt(i);
+            assertEquals(1 + i, layoutManager.getPosition(child));
+            assertEquals(0f, child.getTranslationY(), 0f);
+        }
+        assertEquals(HEIGHT - 100, layoutManager.getChildAt(1).getTop());
+    }
+
+    @Test
+    public void disablingModeCommitsLayoutPositions() {
+        startDragging();
+        recyclerView.scrollBy(0, 500);
+        layoutManager.setTranslationScrollEnabled(false);
+        final View second = layoutManager.getChildAt(1);
+        assertEquals(HEIGHT - 500, second.getTop());
+        assertEquals(0f, second.getTranslationY(), 0f);
+    }
+
+    /**RecyclerView.scrollBy() doesn't change scroll state, so dragging is started explicitly**/
+    private void startDragging() {
+        layoutManager.onScrollStateChanged(RecyclerView.SCROLL_STATE_DRAGGING);
+    }
+}
@@ -0,0 +1,37 @@
+package com.alexyuzefovich.stacklayoutmanager;
+
+import android.view.View;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.test.core.app.ApplicationProvider;
+
+/**
+ * Factory of RecyclerView instances laid out with fixed size for tests.
+ */
+final class TestRecyclerViews {
+
+    static final int WIDTH = 1080;
+    static final int HEIGHT = 1920;
+
+    private TestRecyclerViews() {
+    }
+
+    @NonNull
+    static RecyclerView create(@NonNull RecyclerView.LayoutManager layoutManager,
+                               @NonNull RecyclerView.Adapter<?> adapter) {
+        final RecyclerView recyclerView = new RecyclerView(ApplicationProvider.getApplicationContext());
+        recyclerView.setLayoutManager(layoutManager);
+        recyclerView.setAdapter(adapter);
+        layout(recyclerView);
+        return recyclerView;
+    }
+
+    static void layout(@NonNull RecyclerView recyclerView) {
+        recyclerView.measure(
+                View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY)
+        );
+        recyclerView.layout(0, 0, WIDTH, HEIGHT);
+    }
+}
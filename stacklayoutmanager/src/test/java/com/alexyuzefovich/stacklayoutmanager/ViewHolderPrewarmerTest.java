@@ -0,0 +1,216 @@
+package com.alexyuzefovich.stacklayoutmanager;
+
+import android.os.Looper;
+import android.os.MessageQueue;
+import android.view.ViewGroup;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.test.core.app.ApplicationProvider;
+
+import com.alexyuzefovich.stacklayoutmanager.helper.ViewHolderPrewarmer;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class ViewHolderPrewarmerTest {
+
+    private static final int ITEM_COUNT = 100;
+
+    private static final Executor DIRECT_EXECUTOR = new Executor() {
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+    };
+
+    private FailingAdapter adapter;
+    private RecyclerView recyclerView;
+    private ViewHolderPrewarmer prewarmer;
+    private int finishedCount = -1;
+    private int finishCallCount = 0;
+
+    @Before
+    public void setUp() {
+        adapter = new FailingAdapter(ITEM_COUNT);
+        recyclerView = new RecyclerView(ApplicationProvider.getApplicationContext());
+        recyclerView.setAdapter(adapter);
+        prewarmer = new ViewHolderPrewarmer(recyclerView, adapter);
+        prewarmer.setCallback(new ViewHolderPrewarmer.Callback() {
+            @Override
+            public void onPrewarmFinished(int createdCount) {
+                finishedCount = createdCount;
+                finishCallCount++;
+            }
+        });
+    }
+
+    @Test
+    public void firstLayoutBindsPrewarmedViewHolders() {
+        final StackLayoutManager layoutManager = new StackLayoutManager();
+        prewarmer.prewarmInBackground(0, ViewHolderPrewarmer.getStackWindowSize(layoutManager), DIRECT_EXECUTOR);
+        ShadowLooper.runUiThreadTasks();
+        assertEquals(3, finishedCount);
+        assertEquals(3, recyclerView.getRecycledViewPool().getRecycledViewCount(0));
+
+        adapter.resetCounters();
+        recyclerView.setLayoutManager(layoutManager);
+        TestRecyclerViews.layout(recyclerView);
+        assertEquals(0, adapter.createCount);
+        assertEquals(3, adapter.bindCount);
+        assertEquals(3, layoutManager.getChildCount());
+    }
+
+    @Test
+    public void cancelledPrewarmingDoesNotFillPool() {
+        prewarmer.prewarmInBackground(0, 3, new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                prewarmer.cancel();
+                command.run();
+            }
+        });
+        ShadowLooper.runUiThreadTasks();
+        assertEquals(-1, finishedCount);
+        assertEquals(0, recyclerView.getRecycledViewPool().getRecycledViewCount(0));
+    }
+
+    @Test
+    public void cancelledRequestDoesNotFillPoolAfterRestart() {
+        final List<Runnable> deferredCommands = new ArrayList<>();
+        prewarmer.prewarmInBackground(0, 2, new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                deferredCommands.add(command);
+            }
+        });
+        prewarmer.cancel();
+        prewarmer.prewarmInBackground(0, 3, DIRECT_EXECUTOR);
+        ShadowLooper.runUiThreadTasks();
+        assertEquals(1, finishCallCount);
+        assertEquals(3, finishedCount);
+
+        // view holders of the cancelled request are created late and dropped
+        deferredCommands.get(0).run();
+        ShadowLooper.runUiThreadTasks();
+        assertEquals(1, finishCallCount);
+        assertEquals(3, recyclerView.getRecycledViewPool().getRecycledViewCount(0));
+    }
+
+    @Test
+    public void callbackWaitsForAllViewTypes() {
+        prewarmer.prewarmInBackground(0, 3, DIRECT_EXECUTOR);
+        prewarmer.prewarmOnIdle(1, 2);
+        ShadowLooper.runUiThreadTasks();
+        assertEquals(0, finishCallCount);
+
+        for (int i = 0; i < 2; i++) {
+            runIdleHandlers();
+            ShadowLooper.runUiThreadTasks();
+        }
+        assertEquals(1, finishCallCount);
+        assertEquals(5, finishedCount);
+        assertEquals(3, recyclerView.getRecycledViewPool().getRecycledViewCount(0));
+        assertEquals(2, recyclerView.getRecycledViewPool().getRecycledViewCount(1));
+    }
+
+    @Test
+    public void viewHoldersDroppedByPoolAreNotCounted() {
+        recyclerView.getRecycledViewPool().setMaxRecycledViews(0, 2);
+        prewarmer.prewarmInBackground(0, 3, DIRECT_EXECUTOR);
+        ShadowLooper.runUiThreadTasks();
+        assertEquals(2, finishedCount);
+        assertEquals(2, recyclerView.getRecycledViewPool().getRecycledViewCount(0));
+    }
+
+    @Test
+    public void prewarmOnIdleCreatesViewHoldersOneByOne() {
+        prewarmer.prewarmOnIdle(0, 3);
+        assertEquals(0, adapter.createCount);
+
+        for (int i = 1; i <= 3; i++) {
+            runIdleHandlers();
+            assertEquals(i, adapter.createCount);
+            // the next view holder is created after posted message
+            ShadowLooper.runUiThreadTasks();
+        }
+        assertEquals(3, finishedCount);
+        assertEquals(3, adapter.createCount);
+        assertEquals(3, recyclerView.getRecycledViewPool().getRecycledViewCount(0));
+    }
+
+    @Test
+    public void failedBackgroundCreationFallsBackToIdleTime() {
+        prewarmer.prewarmInBackground(0, 3, new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                // ex. item view creates Handler in constructor
+                adapter.failCreation = true;
+                command.run();
+                adapter.failCreation = false;
+            }
+        });
+        ShadowLooper.runUiThreadTasks();
+        assertEquals(0, adapter.createCount);
+
+        for (int i = 0; i < 3; i++) {
+            runIdleHandlers();
+            ShadowLooper.runUiThreadTasks();
+        }
+        assertEquals(3, finishedCount);
+        assertEquals(3, adapter.createCount);
+        assertEquals(3, recyclerView.getRecycledViewPool().getRecycledViewCount(0));
+    }
+
+    /**Calls idle handlers of the main looper once, as message queue does when it becomes idle.
+     * Scheduler of Robolectric runs posted tasks only, so handlers are taken from the queue**/
+    @SuppressWarnings("unchecked")
+    private static void runIdleHandlers() {
+        final List<MessageQueue.IdleHandler> idleHandlers;
+        try {
+            final Field field = MessageQueue.class.getDeclaredField("mIdleHandlers");
+            field.setAccessible(true);
+            idleHandlers = (List<MessageQueue.IdleHandler>) field.get(Looper.getMainLooper().getQueue());
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError(e);
+        }
+        final List<MessageQueue.IdleHandler> pending = new ArrayList<>(idleHandlers);
+        idleHandlers.clear();
+        for (MessageQueue.IdleHandler idleHandler : pending) {
+            if (idleHandler.queueIdle()) {
+                idleHandlers.add(idleHandler);
+            }
+        }
+    }
+
+    private static class FailingAdapter extends CountingAdapter {
+
+        boolean failCreation;
+
+        FailingAdapter(int itemCount) {
+            super(itemCount);
+        }
+
+        @NonNull
+        @Override
+        public Holder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+            if (failCreation) {
+                throw new IllegalStateException("Can't create view on this thread");
+            }
+            return super.onCreateViewHolder(parent, viewType);
+        }
+    }
+}